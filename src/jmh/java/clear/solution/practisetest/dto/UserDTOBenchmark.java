@@ -0,0 +1,39 @@
+package clear.solution.practisetest.dto;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserDTOBenchmark {
+
+    private String email = "user@example.com";
+    private String paddedEmail = "  user@example.com  ";
+    private LocalDate birthDate = LocalDate.of(1990, 5, 15);
+
+
+    @Benchmark
+    public UserDTO trimmedUser() {
+        return new UserDTO(1L, email, "John", "Doe", birthDate, null, "380967885962");
+    }
+
+    @Benchmark
+    public UserDTO paddedUser() {
+        return new UserDTO(1L, paddedEmail, " John ", " Doe ", birthDate, null, " 380967885962 ");
+    }
+
+    @Benchmark
+    public UserDTO userWithAddress() {
+        return new UserDTO(1L, email, "John", "Doe", birthDate,
+                new AddressDTO("Brovary", "Ukraine", "0760000000", "Kyivska", "Kyivska", "12"),
+                "380967885962");
+    }
+
+    @Benchmark
+    public AddressDTO paddedAddress() {
+        return new AddressDTO(" Brovary ", " Ukraine ", null, " Kyivska ", null, null);
+    }
+}
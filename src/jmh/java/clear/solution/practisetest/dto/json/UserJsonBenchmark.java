@@ -0,0 +1,67 @@
+package clear.solution.practisetest.dto.json;
+
+import clear.solution.practisetest.dto.AddressDTO;
+import clear.solution.practisetest.dto.UserDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static com.fasterxml.jackson.databind.SerializationFeature.WRITE_DATES_AS_TIMESTAMPS;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserJsonBenchmark {
+
+    @Param({"databind", "fast-path"})
+    private String path;
+
+    private ObjectWriter pageWriter;
+    private ObjectReader userReader;
+    private List<UserDTO> page;
+    private byte[] user;
+
+
+    @Setup
+    public void setUp() throws IOException {
+        var builder = Jackson2ObjectMapperBuilder.json().featuresToDisable(WRITE_DATES_AS_TIMESTAMPS);
+        if (path.equals("fast-path")) {
+            builder.modulesToInstall(new SimpleModule()
+                    .addSerializer(new UserJsonComponent.UserSerializer())
+                    .addSerializer(new UserJsonComponent.AddressSerializer())
+                    .addDeserializer(UserDTO.class, new UserJsonComponent.UserDeserializer())
+                    .addDeserializer(AddressDTO.class, new UserJsonComponent.AddressDeserializer()));
+        }
+        ObjectMapper mapper = builder.build();
+
+        page = IntStream.range(0, 200)
+                .mapToObj(i -> new UserDTO((long) i, "user%d@example.com".formatted(i), "John", "Doe",
+                        LocalDate.of(1990, 5, 15).plusDays(i),
+                        i % 2 == 0 ? null : new AddressDTO("Brovary", "Ukraine", "0760000000", "Kyivska", null, "12"),
+                        "380967885962"))
+                .toList();
+        pageWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, UserDTO.class));
+        userReader = mapper.readerFor(UserDTO.class);
+        user = mapper.writeValueAsBytes(page.get(1));
+    }
+
+    @Benchmark
+    public void writePage() throws IOException {
+        pageWriter.writeValue(OutputStream.nullOutputStream(), page);
+    }
+
+    @Benchmark
+    public UserDTO readUser() throws IOException {
+        return userReader.readValue(user);
+    }
+}
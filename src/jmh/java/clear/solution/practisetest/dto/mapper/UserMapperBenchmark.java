@@ -0,0 +1,71 @@
+package clear.solution.practisetest.dto.mapper;
+
+import clear.solution.practisetest.dto.AddressDTO;
+import clear.solution.practisetest.dto.UserDTO;
+import clear.solution.practisetest.model.Address;
+import clear.solution.practisetest.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserMapperBenchmark {
+
+    private final AddressMapper addressMapper = new AddressMapper();
+    private final UserMapper mapper = new UserMapper(addressMapper);
+
+    private User user;
+    private UserDTO dto;
+    private UserDTO patch;
+
+
+    @Setup
+    public void setUp() {
+        var address = new Address("Brovary", "Ukraine", "0760000000", "Kyivska", "Kyivska", "12");
+        user = new User(1L, "user@example.com", "John", "Doe", LocalDate.of(1990, 5, 15), address, "380967885962", 0L);
+        dto = mapper.toDTO(user);
+        patch = new UserDTO(null, null, "Jane", null, null,
+                new AddressDTO("Kyiv", "Ukraine", null, null, null, null), null);
+    }
+
+    @Benchmark
+    public UserDTO toDTO() {
+        return mapper.toDTO(user);
+    }
+
+    @Benchmark
+    public User toEntity() {
+        return mapper.toEntity(dto);
+    }
+
+    @Benchmark
+    public User fullUpdate() {
+        mapper.fullUpdate(dto, user);
+        return user;
+    }
+
+    @Benchmark
+    public User partialUpdate() {
+        mapper.partialUpdate(patch, user);
+        return user;
+    }
+
+    @Benchmark
+    public AddressDTO addressToDTO() {
+        return addressMapper.toDTO(user.getAddress());
+    }
+
+    @Benchmark
+    public Address addressToEntity() {
+        return addressMapper.toEntity(dto.address());
+    }
+
+    @Benchmark
+    public Address addressUpdate() {
+        addressMapper.update(dto.address(), user.getAddress());
+        return user.getAddress();
+    }
+}
@@ -0,0 +1,96 @@
+package clear.solution.practisetest.dto.validation;
+
+import clear.solution.practisetest.dto.AddressDTO;
+import clear.solution.practisetest.dto.UserDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserDTOValidationBenchmark {
+
+    @Param({"Create", "PartialUpdate", "FullUpdate"})
+    private String group;
+
+    private static final Pattern EMAIL = Pattern.compile("^[\\w-\\.]+@([\\w-]+\\.)+[\\w-]{2,4}$");
+
+    private ValidatorFactory factory;
+    private Validator validator;
+    private UserDTOValidator compiled;
+    private String hostileEmail;
+    private Class<?> groupClass;
+    private UserDTO valid;
+    private UserDTO invalid;
+
+
+    @Setup
+    public void setUp() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+        compiled = new UserDTOValidator(validator);
+        hostileEmail = "a".repeat(64) + "@" + "a-".repeat(160) + "!";
+        groupClass = switch (group) {
+            case "Create" -> Groups.Create.class;
+            case "PartialUpdate" -> Groups.PartialUpdate.class;
+            case "FullUpdate" -> Groups.FullUpdate.class;
+            default -> throw new IllegalArgumentException("Unknown group " + group);
+        };
+        valid = new UserDTO(null, "user@example.com", "John", "Doe", LocalDate.of(1990, 5, 15),
+                new AddressDTO("Brovary", "Ukraine", "0760000000", "Kyivska", "Kyivska", "12"),
+                "380967885962");
+        invalid = new UserDTO(null, "not an email", "J", "", LocalDate.now().plusDays(1),
+                new AddressDTO("", "U", "07600", null, null, null), "123");
+    }
+
+    @TearDown
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserDTO>> validUser() {
+        return validator.validate(valid, groupClass);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserDTO>> invalidUser() {
+        return validator.validate(invalid, groupClass);
+    }
+
+    @Benchmark
+    public List<String> compiledValidUser() {
+        return compiled(valid);
+    }
+
+    @Benchmark
+    public List<String> compiledInvalidUser() {
+        return compiled(invalid);
+    }
+
+    @Benchmark
+    public boolean patternHostileEmail() {
+        return EMAIL.matcher(hostileEmail).matches();
+    }
+
+    @Benchmark
+    public boolean scannerHostileEmail() {
+        return EmailScanner.isValid(hostileEmail);
+    }
+
+    private List<String> compiled(UserDTO dto) {
+        var errors = new ArrayList<String>();
+        compiled.validate(dto, groupClass, (field, code, message, value) -> errors.add(message));
+        return errors;
+    }
+}
@@ -0,0 +1,75 @@
+package clear.solution.practisetest.loadtest;
+
+import clear.solution.practisetest.loadtest.LoadTest.Options;
+import clear.solution.practisetest.loadtest.LoadTest.Result;
+import clear.solution.practisetest.loadtest.Workload.Operation;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.Locale;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+final class LoadReport {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private LoadReport() {
+    }
+
+    static void write(Options options, Workload workload, Result result) throws IOException {
+        Files.createDirectories(options.out());
+        var total = new Histogram(3);
+        long errors = 0;
+        for (var operation : Operation.values()) {
+            var histogram = result.histograms().get(operation);
+            if (histogram.getTotalCount() == 0) continue;
+            total.add(histogram);
+            errors += result.errors().get(operation).sum();
+            writeHistogram(options, workload.label() + "-" + operation.label(), histogram);
+        }
+        writeHistogram(options, workload.label() + "-all", total);
+
+        var summary = new StringBuilder()
+                .append("workload: ").append(workload.label()).append('\n')
+                .append("target rate: ").append(options.rate()).append(" req/s\n")
+                .append("duration: ").append(options.duration().toSeconds()).append(" s\n")
+                .append("seeded users: ").append(options.users()).append('\n')
+                .append("achieved rate: ")
+                .append(format(total.getTotalCount() / (result.elapsedNanos() / 1e9))).append(" req/s\n")
+                .append("errors: ").append(errors).append("\n\n")
+                .append("%-12s %9s %7s %9s %9s %9s %9s %9s%n".formatted(
+                        "operation", "requests", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (var operation : Operation.values()) {
+            var histogram = result.histograms().get(operation);
+            if (histogram.getTotalCount() == 0) continue;
+            summary.append(row(operation.label(), histogram, result.errors().get(operation).sum()));
+        }
+        summary.append(row("all", total, errors));
+
+        Files.writeString(options.out().resolve(workload.label() + "-summary.txt"), summary, UTF_8);
+        System.out.printf("%n%s", summary);
+    }
+
+    private static void writeHistogram(Options options, String name, Histogram histogram) throws IOException {
+        try (var out = new PrintStream(Files.newOutputStream(options.out().resolve(name + ".hgrm")), false, UTF_8)) {
+            histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+        }
+    }
+
+    private static String row(String name, Histogram histogram, long errors) {
+        return "%-12s %9d %7d %9s %9s %9s %9s %9s%n".formatted(name, histogram.getTotalCount(), errors,
+                millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                format(histogram.getMaxValue() / MICROS_PER_MILLI));
+    }
+
+    private static String millis(Histogram histogram, double percentile) {
+        return format(histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI);
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+}
@@ -0,0 +1,194 @@
+package clear.solution.practisetest.loadtest;
+
+import clear.solution.practisetest.PractiseTestApplication;
+import clear.solution.practisetest.loadtest.Workload.Operation;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class LoadTest {
+
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+    private static final int SEED_CHUNK = 500;
+    private static final LocalDate FIRST_BIRTH_DATE = LocalDate.of(1950, 1, 1);
+    private static final int BIRTH_DATE_SPREAD = 18_000;
+
+    private final Options options;
+    private final HttpClient client;
+    private final AtomicLong emails = new AtomicLong();
+    private String base;
+    private long[] ids;
+
+
+    private LoadTest(Options options) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        var options = Options.parse(args);
+        try (var context = start(options)) {
+            var loadTest = new LoadTest(options);
+            loadTest.base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            loadTest.ids = loadTest.seed();
+
+            for (var workload : options.workloads()) {
+                loadTest.run(workload, options.warmUp());
+                var result = loadTest.run(workload, options.duration());
+                LoadReport.write(options, workload, result);
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext start(Options options) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        return new SpringApplicationBuilder(PractiseTestApplication.class)
+                .profiles(options.profiles().toArray(String[]::new))
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:loadtest",
+                        "logging.level.clear.solution.practisetest=warn")
+                .run();
+    }
+
+    private long[] seed() throws Exception {
+        var seeded = new ArrayList<Long>(options.users());
+        for (int offset = 0; offset < options.users(); offset += SEED_CHUNK) {
+            var users = IntStream.range(offset, Math.min(offset + SEED_CHUNK, options.users()))
+                    .mapToObj(i -> user(FIRST_BIRTH_DATE.plusDays(i % BIRTH_DATE_SPREAD)))
+                    .collect(Collectors.joining(",", "{\"users\":[", "]}"));
+            var response = client.send(post("/api/v1/users/batch", users), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Seeding failed with status " + response.statusCode());
+            }
+            ID.matcher(response.body()).results().forEach(m -> seeded.add(Long.parseLong(m.group(1))));
+        }
+        System.out.printf("Seeded %d users%n", seeded.size());
+        return seeded.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private Result run(Workload workload, Duration duration) {
+        var histograms = new EnumMap<Operation, Histogram>(Operation.class);
+        var errors = new EnumMap<Operation, LongAdder>(Operation.class);
+        for (var operation : Operation.values()) {
+            histograms.put(operation, new ConcurrentHistogram(3));
+            errors.put(operation, new LongAdder());
+        }
+
+        var random = new SplittableRandom(options.seed());
+        var intervalNanos = 1_000_000_000.0 / options.rate();
+        var requests = (long) (duration.toNanos() / intervalNanos);
+        var start = System.nanoTime();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < requests; i++) {
+                var intended = start + (long) (i * intervalNanos);
+                var wait = intended - System.nanoTime();
+                if (wait > 0) LockSupport.parkNanos(wait);
+
+                var operation = workload.next(random);
+                var request = request(operation, random);
+                executor.submit(() -> {
+                    try {
+                        var response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) errors.get(operation).increment();
+                    } catch (Exception e) {
+                        errors.get(operation).increment();
+                    }
+                    histograms.get(operation).recordValue((System.nanoTime() - intended) / 1000);
+                });
+            }
+        }
+        return new Result(histograms, errors, System.nanoTime() - start);
+    }
+
+    private HttpRequest request(Operation operation, SplittableRandom random) {
+        return switch (operation) {
+            case GET_BY_ID -> get("/api/v1/users/" + ids[random.nextInt(ids.length)]);
+            case GET_PAGE -> get("/api/v1/users?size=20&page=" + random.nextInt(Math.max(1, ids.length / 20)));
+            case RANGE_SCAN -> {
+                var from = FIRST_BIRTH_DATE.plusDays(random.nextInt(BIRTH_DATE_SPREAD));
+                yield get("/api/v1/users?size=50&from=%s&to=%s".formatted(from, from.plusYears(1)));
+            }
+            case CREATE -> post("/api/v1/users", user(FIRST_BIRTH_DATE.plusDays(random.nextInt(BIRTH_DATE_SPREAD))));
+            case PATCH -> HttpRequest.newBuilder(URI.create(base + "/api/v1/users/" + ids[random.nextInt(ids.length)]))
+                    .header("Content-Type", "application/json")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString(
+                            "{\"firstName\":\"Name" + random.nextInt(1000) + "\"}"))
+                    .build();
+        };
+    }
+
+    private String user(LocalDate birthDate) {
+        return """
+                {"email":"load%d@example.com","firstName":"John","lastName":"Doe","birthDate":"%s"}"""
+                .formatted(emails.incrementAndGet(), birthDate);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(base + path)).GET().build();
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(base + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    record Result(Map<Operation, Histogram> histograms, Map<Operation, LongAdder> errors, long elapsedNanos) {
+    }
+
+    record Options(List<Workload> workloads, int rate, Duration warmUp, Duration duration, int users,
+                   long seed, List<String> profiles, Path out) {
+
+        static Options parse(String[] args) {
+            var values = new HashMap<String, String>();
+            for (int i = 0; i < args.length; i++) {
+                if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Expected --name value pairs but got " + Arrays.toString(args));
+                }
+                values.put(args[i].substring(2), args[++i]);
+            }
+            var mix = values.getOrDefault("mix", "read-heavy");
+            return new Options(
+                    mix.equals("all")
+                            ? List.of(Workload.values())
+                            : Arrays.stream(mix.split(",")).map(Workload::of).toList(),
+                    Integer.parseInt(values.getOrDefault("rate", "200")),
+                    DurationStyle.detectAndParse(values.getOrDefault("warm-up", "10s")),
+                    DurationStyle.detectAndParse(values.getOrDefault("duration", "60s")),
+                    Integer.parseInt(values.getOrDefault("users", "10000")),
+                    Long.parseLong(values.getOrDefault("seed", "42")),
+                    values.containsKey("profiles") ? List.of(values.get("profiles").split(",")) : List.of(),
+                    Path.of(values.getOrDefault("out", "target/loadtest")));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package clear.solution.practisetest.loadtest;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+enum Workload {
+
+    READ_HEAVY(new int[]{70, 20, 5, 3, 2}),
+    WRITE_HEAVY(new int[]{20, 5, 0, 40, 35}),
+    RANGE_SCAN(new int[]{10, 10, 80, 0, 0}),
+    MIXED(new int[]{40, 15, 15, 15, 15});
+
+    private final int[] cumulative;
+
+
+    Workload(int[] weights) {
+        this.cumulative = new int[weights.length];
+        var sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cumulative[i] = sum;
+        }
+    }
+
+    static Workload of(String name) {
+        return valueOf(name.strip().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+
+    String label() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    Operation next(SplittableRandom random) {
+        var roll = random.nextInt(cumulative[cumulative.length - 1]);
+        for (int i = 0; i < cumulative.length; i++) {
+            if (roll < cumulative[i]) return Operation.values()[i];
+        }
+        throw new IllegalStateException("Weights of " + this + " do not cover " + roll);
+    }
+
+    enum Operation {
+        GET_BY_ID, GET_PAGE, RANGE_SCAN, CREATE, PATCH;
+
+        String label() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+    }
+}
@@ -1,11 +1,31 @@
 package clear.solution.practisetest;
 
+import clear.solution.practisetest.config.EmailIndexProperties;
+import clear.solution.practisetest.config.UserAuditProperties;
+import clear.solution.practisetest.config.UserBulkProperties;
+import clear.solution.practisetest.config.UserCacheProperties;
+import clear.solution.practisetest.config.UserCountProperties;
+import clear.solution.practisetest.config.UserImportProperties;
+import clear.solution.practisetest.config.UserLimitProperties;
+import clear.solution.practisetest.config.UserReplicaProperties;
+import clear.solution.practisetest.config.UserShardingProperties;
 import clear.solution.practisetest.config.UserValidationProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
-@EnableConfigurationProperties(UserValidationProperties.class)
+@EnableConfigurationProperties({
+        UserValidationProperties.class,
+        UserImportProperties.class,
+        UserCacheProperties.class,
+        UserCountProperties.class,
+        UserAuditProperties.class,
+        UserLimitProperties.class,
+        UserBulkProperties.class,
+        UserShardingProperties.class,
+        UserReplicaProperties.class,
+        EmailIndexProperties.class
+})
 @SpringBootApplication
 public class PractiseTestApplication {
 
@@ -0,0 +1,42 @@
+package clear.solution.practisetest.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Slf4j
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    public static final String USERS_CACHE = "users";
+
+
+    @Bean
+    CacheManager cacheManager(UserCacheProperties cacheProps) {
+        if (!cacheProps.enabled()) {
+            log.info("User cache is disabled");
+            return new NoOpCacheManager();
+        }
+
+        var cacheManager = new CaffeineCacheManager(USERS_CACHE) {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return new GuardedCaffeineCache(name, cache, isAllowNullValues());
+            }
+        };
+        cacheManager.setAllowNullValues(false);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(cacheProps.maximumSize())
+                .expireAfterWrite(cacheProps.ttl())
+                .recordStats());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,25 @@
+package clear.solution.practisetest.config;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "user.email-index")
+public record EmailIndexProperties(
+        @NotNull(message = "Email index enabled flag is required")
+        Boolean enabled,
+
+        @Positive(message = "Expected insertions must be positive")
+        @NotNull(message = "Expected insertions is required")
+        Long expectedInsertions,
+
+        @DecimalMin(value = "0.0", inclusive = false, message = "False positive rate must be between 0 and 1")
+        @DecimalMax(value = "1.0", inclusive = false, message = "False positive rate must be between 0 and 1")
+        @NotNull(message = "False positive rate is required")
+        Double falsePositiveRate
+) {
+}
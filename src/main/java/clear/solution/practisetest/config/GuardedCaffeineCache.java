@@ -0,0 +1,128 @@
+package clear.solution.practisetest.config;
+
+import clear.solution.practisetest.replica.ReplicaReads;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Caffeine cache whose read-through loads can never overwrite a newer write.
+ * <p>
+ * Every put, evict and clear bumps a generation stripe for the key. A load remembers
+ * the stripe before it reads and stores its result only if no write touched the stripe
+ * meanwhile, so a read that raced an update or delete cannot put the old row back.
+ * Writes must reach the cache after their transaction commits, which the cache advice
+ * guarantees by running outside the transactional one.
+ * <p>
+ * Loads served by the read replica are returned but not stored, as they may lag behind
+ * writes that were already applied to the cache.
+ */
+public class GuardedCaffeineCache extends CaffeineCache {
+
+    private static final int STRIPES = 1024;
+
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+
+    public GuardedCaffeineCache(String name, Cache<Object, Object> cache, boolean allowNullValues) {
+        super(name, cache, allowNullValues);
+    }
+
+    /**
+     * Loads outside of any cache lock, unlike {@link CaffeineCache#get(Object, Callable)},
+     * so a slow query never blocks writers of neighbouring keys.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        var cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+
+        var generation = generation(key);
+        var replicaReads = ReplicaReads.mark();
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        if (!ReplicaReads.servedSince(replicaReads)) {
+            putIfUnchanged(key, value, generation);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the generation to pass to {@link #putIfUnchanged} once the value for the key is read.
+     */
+    public long generation(Object key) {
+        return generations.get(stripe(key));
+    }
+
+    /**
+     * Stores the value unless the key was written or evicted since {@code generation} was taken.
+     */
+    public void putIfUnchanged(Object key, Object value, long generation) {
+        if (value == null) return;
+        var stored = toStoreValue(value);
+        getNativeCache().asMap().compute(key, (k, current) ->
+                generations.get(stripe(k)) == generation ? stored : current);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        var stored = toStoreValue(value);
+        getNativeCache().asMap().compute(key, (k, current) -> {
+            generations.incrementAndGet(stripe(k));
+            return stored;
+        });
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        var stored = toStoreValue(value);
+        var existing = getNativeCache().asMap().computeIfAbsent(key, k -> {
+            generations.incrementAndGet(stripe(k));
+            return stored;
+        });
+        return existing == stored ? null : toValueWrapper(existing);
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictIfPresent(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        var present = new boolean[1];
+        getNativeCache().asMap().compute(key, (k, current) -> {
+            generations.incrementAndGet(stripe(k));
+            present[0] = current != null;
+            return null;
+        });
+        return present[0];
+    }
+
+    @Override
+    public void clear() {
+        invalidate();
+    }
+
+    @Override
+    public boolean invalidate() {
+        for (int i = 0; i < STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+        return super.invalidate();
+    }
+
+    private static int stripe(Object key) {
+        var hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+}
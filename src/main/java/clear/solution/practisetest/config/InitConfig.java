@@ -5,6 +5,7 @@ import clear.solution.practisetest.model.User;
 import clear.solution.practisetest.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -17,6 +18,7 @@ public class InitConfig {
     private final UserRepository userRepo;
 
     @Bean
+    @ConditionalOnProperty(prefix = "user.sharding", name = "enabled", havingValue = "false", matchIfMissing = true)
     CommandLineRunner init() {
         return args -> {
             var me = User.builder()
@@ -0,0 +1,85 @@
+package clear.solution.practisetest.config;
+
+import clear.solution.practisetest.replica.ReadYourWritesFilter;
+import clear.solution.practisetest.replica.ReplicaRoutingDataSource;
+import clear.solution.practisetest.replica.WriteTrackingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "user.replica", name = "enabled", havingValue = "true")
+public class ReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties dataSourceProps,
+                                       UserReplicaProperties replicaProps,
+                                       Environment environment) {
+        if (replicaProps.url() == null || replicaProps.url().isBlank()) {
+            throw new IllegalStateException("Replica routing is enabled but no replica url is configured");
+        }
+        if (environment.getProperty("user.sharding.enabled", Boolean.class, false)) {
+            throw new IllegalStateException("Replica routing cannot be combined with sharding");
+        }
+        if (environment.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+            throw new IllegalStateException("Replica routing requires spring.jpa.open-in-view=false");
+        }
+
+        var dataSource = dataSourceProps.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    HikariDataSource replicaDataSource(UserReplicaProperties replicaProps) {
+        var dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(replicaProps.url())
+                .username(replicaProps.username())
+                .password(replicaProps.password())
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        dataSource.setConnectionTimeout(Math.max(250, replicaProps.probeTimeout().toMillis()));
+        return dataSource;
+    }
+
+    @Bean
+    ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                      HikariDataSource replicaDataSource,
+                                                      UserReplicaProperties replicaProps,
+                                                      MeterRegistry meterRegistry) {
+        return new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource,
+                replicaProps.probeInterval(), replicaProps.probeTimeout(), replicaProps.failureThreshold(),
+                meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        var dataSource = new LazyConnectionDataSourceProxy(new WriteTrackingDataSource(primaryDataSource));
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        log.info("Routing read-only transactions to the replica");
+        return dataSource;
+    }
+
+    @Bean
+    ReadYourWritesFilter readYourWritesFilter() {
+        return new ReadYourWritesFilter();
+    }
+}
@@ -0,0 +1,127 @@
+package clear.solution.practisetest.config;
+
+import clear.solution.practisetest.model.UserIdGenerator;
+import clear.solution.practisetest.repository.UserRepository;
+import clear.solution.practisetest.service.UserService;
+import clear.solution.practisetest.service.impl.ShardedUserService;
+import clear.solution.practisetest.service.impl.UserServiceImpl;
+import clear.solution.practisetest.sharding.EmailClaims;
+import clear.solution.practisetest.sharding.ShardContext;
+import clear.solution.practisetest.sharding.ShardIdGenerator;
+import clear.solution.practisetest.sharding.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayConnectionDetails;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryBuilderCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "user.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    @Primary
+    ShardRoutingDataSource dataSource(UserShardingProperties shardingProps, Environment environment) {
+        if (shardingProps.shards().isEmpty()) {
+            throw new IllegalStateException("Sharding is enabled but no shards are configured");
+        }
+        if (environment.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+            throw new IllegalStateException("Sharding requires spring.jpa.open-in-view=false");
+        }
+
+        var shards = new ArrayList<DataSource>();
+        for (var shard : shardingProps.shards()) {
+            var dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.url())
+                    .username(shard.username())
+                    .password(shard.password())
+                    .build();
+            dataSource.setPoolName("shard-" + shards.size());
+            shards.add(dataSource);
+        }
+        log.info("Routing users across {} shards", shards.size());
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    FlywayConnectionDetails shardFlywayConnectionDetails(UserShardingProperties shardingProps) {
+        var first = shardingProps.shards().get(0);
+        return new FlywayConnectionDetails() {
+            @Override
+            public String getJdbcUrl() {
+                return first.url();
+            }
+
+            @Override
+            public String getUsername() {
+                return first.username();
+            }
+
+            @Override
+            public String getPassword() {
+                return first.password();
+            }
+        };
+    }
+
+    @Bean
+    FlywayMigrationStrategy shardMigrations(ShardRoutingDataSource dataSource) {
+        return flyway -> dataSource.shards().forEach(shard -> Flyway.configure()
+                .configuration(flyway.getConfiguration())
+                .dataSource(shard)
+                .load()
+                .migrate());
+    }
+
+    @Bean
+    ShardIdGenerator userIdGenerator(UserShardingProperties shardingProps, ShardRoutingDataSource dataSource) {
+        return new ShardIdGenerator(shardingProps.nodeId(), dataSource.shards().size());
+    }
+
+    /**
+     * Builds the entity manager factory on shard 0, the only time Hibernate needs a
+     * connection without a request: to detect the dialect and validate the schema that
+     * Flyway applied to every shard alike.
+     */
+    @Bean
+    EntityManagerFactoryBuilderCustomizer shardBootstrap() {
+        var onFirstShard = new TaskExecutorAdapter(task -> ShardContext.on(0, () -> {
+            task.run();
+            return null;
+        }));
+        return builder -> builder.setBootstrapExecutor(onFirstShard);
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer shardIdGenerator(ShardIdGenerator userIdGenerator) {
+        return properties -> properties.put(UserIdGenerator.SHARD_IDS, userIdGenerator);
+    }
+
+    @Bean
+    EmailClaims emailClaims(ShardRoutingDataSource dataSource) {
+        return new EmailClaims(dataSource);
+    }
+
+    @Bean
+    @Primary
+    UserService shardedUserService(UserServiceImpl delegate,
+                                   UserRepository userRepo,
+                                   ShardRoutingDataSource dataSource,
+                                   EmailClaims emailClaims) {
+        return new ShardedUserService(delegate, userRepo, dataSource, emailClaims);
+    }
+}
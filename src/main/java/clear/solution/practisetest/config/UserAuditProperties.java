@@ -0,0 +1,46 @@
+package clear.solution.practisetest.config;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "user.audit")
+public record UserAuditProperties(
+        @NotNull(message = "Audit enabled flag is required")
+        Boolean enabled,
+
+        @Positive(message = "Audit buffer capacity must be positive")
+        @NotNull(message = "Audit buffer capacity is required")
+        Integer capacity,
+
+        @Positive(message = "Audit batch size must be positive")
+        @NotNull(message = "Audit batch size is required")
+        Integer batchSize,
+
+        @NotNull(message = "Audit flush interval is required")
+        Duration flushInterval,
+
+        @DecimalMin(value = "0.0", message = "Audit sample rate must be between 0 and 1")
+        @DecimalMax(value = "1.0", message = "Audit sample rate must be between 0 and 1")
+        @NotNull(message = "Audit sample rate is required")
+        Double sampleRate,
+
+        @NotNull(message = "Audit directory is required")
+        Path directory,
+
+        @NotNull(message = "Audit max file size is required")
+        DataSize maxFileSize,
+
+        @Positive(message = "Audit max files must be positive")
+        @NotNull(message = "Audit max files is required")
+        Integer maxFiles
+) {
+}
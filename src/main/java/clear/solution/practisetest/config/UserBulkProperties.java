@@ -0,0 +1,15 @@
+package clear.solution.practisetest.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "user.bulk")
+public record UserBulkProperties(
+        @Positive(message = "Bulk chunk size must be positive")
+        @NotNull(message = "Bulk chunk size is required")
+        Integer chunkSize
+) {
+}
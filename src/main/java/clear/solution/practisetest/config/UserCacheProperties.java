@@ -0,0 +1,23 @@
+package clear.solution.practisetest.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "user.cache")
+public record UserCacheProperties(
+        @NotNull(message = "Cache enabled flag is required")
+        Boolean enabled,
+
+        @Positive(message = "Cache maximum size must be positive")
+        @NotNull(message = "Cache maximum size is required")
+        Long maximumSize,
+
+        @NotNull(message = "Cache ttl is required")
+        Duration ttl
+) {
+}
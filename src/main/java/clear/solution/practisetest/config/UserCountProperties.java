@@ -0,0 +1,19 @@
+package clear.solution.practisetest.config;
+
+import clear.solution.practisetest.dto.TotalCount.Strategy;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "user.count")
+public record UserCountProperties(
+        @NotNull(message = "Count strategy is required")
+        Strategy strategy,
+
+        @NotNull(message = "Count ttl is required")
+        Duration ttl
+) {
+}
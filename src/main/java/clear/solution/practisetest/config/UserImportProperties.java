@@ -0,0 +1,27 @@
+package clear.solution.practisetest.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.nio.file.Path;
+
+@Validated
+@ConfigurationProperties(prefix = "user.import")
+public record UserImportProperties(
+        @Positive(message = "Chunk size must be positive")
+        @NotNull(message = "Chunk size is required")
+        Integer chunkSize,
+
+        @PositiveOrZero(message = "Max reported rejections must not be negative")
+        @NotNull(message = "Max reported rejections is required")
+        Integer maxReportedRejections,
+
+        @NotNull(message = "Checkpoint directory is required")
+        Path checkpointDirectory,
+
+        Path directory
+) {
+}
@@ -0,0 +1,58 @@
+package clear.solution.practisetest.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "user.limit")
+public record UserLimitProperties(
+        @NotNull(message = "Limit enabled flag is required")
+        Boolean enabled,
+
+        @Valid
+        @NotNull(message = "Read budget is required")
+        Budget read,
+
+        @Valid
+        @NotNull(message = "Write budget is required")
+        Budget write,
+
+        @DecimalMin(value = "1.0", message = "Limit tolerance must be at least 1")
+        @NotNull(message = "Limit tolerance is required")
+        Double tolerance,
+
+        @DecimalMin(value = "0.0", inclusive = false, message = "Limit smoothing must be between 0 and 1")
+        @DecimalMax(value = "1.0", message = "Limit smoothing must be between 0 and 1")
+        @NotNull(message = "Limit smoothing is required")
+        Double smoothing,
+
+        @Positive(message = "Limit rtt window must be positive")
+        @NotNull(message = "Limit rtt window is required")
+        Integer rttWindow,
+
+        @NotNull(message = "Limit retry after is required")
+        Duration retryAfter
+) {
+
+    public record Budget(
+            @Positive(message = "Initial limit must be positive")
+            @NotNull(message = "Initial limit is required")
+            Integer initialLimit,
+
+            @Positive(message = "Min limit must be positive")
+            @NotNull(message = "Min limit is required")
+            Integer minLimit,
+
+            @Positive(message = "Max limit must be positive")
+            @NotNull(message = "Max limit is required")
+            Integer maxLimit
+    ) {
+    }
+}
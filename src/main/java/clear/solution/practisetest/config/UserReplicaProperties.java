@@ -0,0 +1,32 @@
+package clear.solution.practisetest.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Validated
+@ConfigurationProperties(prefix = "user.replica")
+public record UserReplicaProperties(
+        @NotNull(message = "Replica enabled flag is required")
+        Boolean enabled,
+
+        String url,
+
+        String username,
+
+        String password,
+
+        @NotNull(message = "Replica probe interval is required")
+        Duration probeInterval,
+
+        @NotNull(message = "Replica probe timeout is required")
+        Duration probeTimeout,
+
+        @Positive(message = "Replica failure threshold must be positive")
+        @NotNull(message = "Replica failure threshold is required")
+        Integer failureThreshold
+) {
+}
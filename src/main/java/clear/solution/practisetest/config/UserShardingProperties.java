@@ -0,0 +1,39 @@
+package clear.solution.practisetest.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.List;
+
+@Validated
+@ConfigurationProperties(prefix = "user.sharding")
+public record UserShardingProperties(
+        @NotNull(message = "Sharding enabled flag is required")
+        Boolean enabled,
+
+        @Min(value = 0, message = "Node id must be between 0 and 1023")
+        @Max(value = 1023, message = "Node id must be between 0 and 1023")
+        @NotNull(message = "Node id is required")
+        Integer nodeId,
+
+        @Size(max = 64, message = "At most 64 shards are supported")
+        @NotNull(message = "Shards are required")
+        List<@Valid Shard> shards
+) {
+
+    public record Shard(
+            @NotBlank(message = "Shard url is required")
+            String url,
+
+            String username,
+
+            String password
+    ) {
+    }
+}
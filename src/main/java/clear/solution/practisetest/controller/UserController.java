@@ -1,27 +1,53 @@
 package clear.solution.practisetest.controller;
 
+import clear.solution.practisetest.dto.BulkResultDTO;
+import clear.solution.practisetest.dto.TotalCount;
+import clear.solution.practisetest.dto.UserBatchDTO;
+import clear.solution.practisetest.dto.UserBatchResultDTO;
+import clear.solution.practisetest.dto.UserBulkPatchDTO;
 import clear.solution.practisetest.dto.UserDTO;
+import clear.solution.practisetest.dto.UserIdsDTO;
+import clear.solution.practisetest.dto.UserLookupDTO;
+import clear.solution.practisetest.dto.mapper.UserCsvMapper;
 import clear.solution.practisetest.dto.validation.Groups.Create;
 import clear.solution.practisetest.dto.validation.Groups.FullUpdate;
 import clear.solution.practisetest.dto.validation.Groups.PartialUpdate;
+import clear.solution.practisetest.dto.validation.UserDTOValidator;
+import clear.solution.practisetest.exception.PreconditionFailedException;
 import clear.solution.practisetest.service.UserService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.springframework.http.HttpHeaders.CONTENT_DISPOSITION;
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.OK;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
 
 @Slf4j
 @RestController
@@ -29,51 +55,219 @@ import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 @RequiredArgsConstructor
 public class UserController {
 
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", UTF_8);
+    private static final int EXPORT_FLUSH_ROWS = 1000;
+
     private final UserService userService;
+    private final UserCsvMapper csvMapper;
+    private final ObjectMapper objectMapper;
+    private final UserDTOValidator userDTOValidator;
+
 
+    @InitBinder({"userDTO", "userBatchDTO"})
+    void initBinder(WebDataBinder binder) {
+        binder.setValidator(userDTOValidator);
+    }
 
     @GetMapping(produces = APPLICATION_JSON_VALUE)
     ResponseEntity<Collection<UserDTO>> getAll(@RequestParam(required = false) LocalDate from,
                                                @RequestParam(required = false) LocalDate to,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(defaultValue = "false") boolean count,
                                                @PageableDefault Pageable pageable) {
-        var page = from != null && to != null
+        if (cursor != null) {
+            return scroll(from, to, cursor, count, pageable.getPageSize());
+        }
+
+        var byBirthDate = from != null && to != null;
+        var slice = byBirthDate
                 ? userService.getAllByBirthDateBetween(from, to, pageable)
                 : userService.getAll(pageable);
 
+        var total = !slice.hasNext() && (slice.hasContent() || pageable.getOffset() == 0)
+                ? TotalCount.exact(pageable.getOffset() + slice.getNumberOfElements())
+                : count(from, to, byBirthDate);
+
         var headers = new HttpHeaders();
-        headers.add("X-Total-Count", String.valueOf(page.getTotalElements()));
-        return new ResponseEntity<>(page.getContent(), headers, OK);
+        addTotalCount(headers, total);
+        headers.setETag(weakETag(slice.getContent()));
+        return new ResponseEntity<>(slice.getContent(), headers, OK);
+    }
+
+    @GetMapping(path = "/export")
+    ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format) {
+        log.debug("Received export request in {} format", format);
+        return switch (format) {
+            case "ndjson" -> ResponseEntity.ok()
+                    .contentType(APPLICATION_NDJSON)
+                    .body(this::writeNdjson);
+            case "csv" -> ResponseEntity.ok()
+                    .contentType(TEXT_CSV)
+                    .header(CONTENT_DISPOSITION, "attachment; filename=users.csv")
+                    .body(this::writeCsv);
+            default -> throw new IllegalArgumentException("Export format must be ndjson or csv");
+        };
     }
 
     @GetMapping(path = "/{id}", produces = APPLICATION_JSON_VALUE)
-    UserDTO getById(@PathVariable Long id) {
-        return userService.getById(id);
+    ResponseEntity<UserDTO> getById(@PathVariable Long id) {
+        return withETag(userService.getById(id));
+    }
+
+    @PostMapping(path = "/lookup", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    UserLookupDTO lookup(@RequestBody @Validated UserIdsDTO dto) {
+        log.debug("Received lookup request for {} users", dto.ids().size());
+        return userService.getAllById(dto.ids());
     }
 
     @ResponseStatus(CREATED)
     @PostMapping(consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
     UserDTO create(@RequestBody @Validated(Create.class) UserDTO dto) {
-        log.info("Received user creation request with dto: {}", dto);
+        log.debug("Received user creation request");
         return userService.create(dto);
     }
 
+    @PostMapping(path = "/batch", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    List<UserBatchResultDTO> createAll(@RequestBody @Validated(Create.class) UserBatchDTO dto) {
+        log.debug("Received batch creation request for {} users", dto.users().size());
+        return userService.createAll(dto.users());
+    }
+
     @PutMapping(path = "/{id}", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
-    UserDTO fullUpdate(@PathVariable Long id,
-                       @RequestBody @Validated(FullUpdate.class) UserDTO dto) {
-        log.info("Received full updating request with dto: {}", dto);
-        return userService.fullUpdate(id, dto);
+    ResponseEntity<UserDTO> fullUpdate(@PathVariable Long id,
+                                       @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                       @RequestBody @Validated(FullUpdate.class) UserDTO dto) {
+        log.debug("Received full updating request for user with id {}", id);
+        return withETag(userService.fullUpdate(id, dto.withVersion(version(ifMatch))));
     }
 
     @PatchMapping(path = "/{id}", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
-    UserDTO partialUpdate(@PathVariable Long id,
-                          @RequestBody @Validated(PartialUpdate.class) UserDTO dto) {
-        log.info("Received partial updating request with dto: {}", dto);
-        return userService.partialUpdate(id, dto);
+    ResponseEntity<UserDTO> partialUpdate(@PathVariable Long id,
+                                          @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                          @RequestBody @Validated(PartialUpdate.class) UserDTO dto) {
+        log.debug("Received partial updating request for user with id {}", id);
+        return withETag(userService.partialUpdate(id, dto.withVersion(version(ifMatch))));
     }
 
     @DeleteMapping(path = "/{id}")
     void deleteById(@PathVariable Long id) {
-        log.info("Received deleting request for product with id {}", id);
+        log.debug("Received deleting request for user with id {}", id);
         userService.deleteById(id);
     }
+
+    @PostMapping(path = "/delete", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    BulkResultDTO deleteAllById(@RequestBody @Validated UserIdsDTO dto) {
+        log.debug("Received bulk deleting request for {} users", dto.ids().size());
+        return new BulkResultDTO(userService.deleteAllById(dto.ids()));
+    }
+
+    @DeleteMapping(params = {"from", "to"}, produces = APPLICATION_JSON_VALUE)
+    BulkResultDTO deleteAllByBirthDateBetween(@RequestParam LocalDate from, @RequestParam LocalDate to) {
+        log.debug("Received bulk deleting request for users born between {} and {}", from, to);
+        return new BulkResultDTO(userService.deleteAllByBirthDateBetween(from, to));
+    }
+
+    @PatchMapping(consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    BulkResultDTO partialUpdateAll(@RequestBody @Validated(PartialUpdate.class) UserBulkPatchDTO dto) {
+        log.debug("Received bulk partial updating request for {} users", dto.ids().size());
+        return new BulkResultDTO(userService.partialUpdateAll(dto.ids(), dto.changes()));
+    }
+
+    private ResponseEntity<Collection<UserDTO>> scroll(LocalDate from, LocalDate to,
+                                                       String cursor, boolean count, int size) {
+        var byBirthDate = from != null && to != null;
+        var page = byBirthDate
+                ? userService.scrollAllByBirthDateBetween(from, to, cursor, size)
+                : userService.scrollAll(cursor, size);
+
+        var headers = new HttpHeaders();
+        if (page.hasNext()) {
+            headers.add("X-Next-Cursor", page.nextCursor());
+        }
+        if (count) {
+            addTotalCount(headers, count(from, to, byBirthDate));
+        }
+        return new ResponseEntity<>(page.content(), headers, OK);
+    }
+
+    private TotalCount count(LocalDate from, LocalDate to, boolean byBirthDate) {
+        return byBirthDate
+                ? userService.countAllByBirthDateBetween(from, to)
+                : userService.countAll();
+    }
+
+    private static void addTotalCount(HttpHeaders headers, TotalCount total) {
+        headers.add("X-Total-Count", String.valueOf(total.value()));
+        headers.add("X-Total-Count-Strategy", total.strategy().name().toLowerCase(Locale.ROOT));
+    }
+
+    private static ResponseEntity<UserDTO> withETag(UserDTO user) {
+        var response = ResponseEntity.ok();
+        if (user.version() != null) {
+            response.eTag("\"" + user.version() + "\"");
+        }
+        return response.body(user);
+    }
+
+    private static String weakETag(List<UserDTO> users) {
+        long hash = users.size();
+        for (var user : users) {
+            hash = 31 * hash + Objects.hashCode(user.id());
+            hash = 31 * hash + Objects.hashCode(user.version());
+        }
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+
+    private static Long version(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) return null;
+        var etag = ifMatch.strip();
+        if (etag.length() < 3 || etag.charAt(0) != '"' || etag.charAt(etag.length() - 1) != '"') {
+            throw new PreconditionFailedException("If-Match must be a single strong entity tag");
+        }
+        try {
+            return Long.parseLong(etag, 1, etag.length() - 1, 10);
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match does not match any user version");
+        }
+    }
+
+    private void writeNdjson(OutputStream out) throws IOException {
+        var writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (var generator = objectMapper.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            var rows = new AtomicLong();
+            userService.exportAll(dto -> {
+                try {
+                    writer.writeValue(generator, dto);
+                    generator.writeRaw('\n');
+                    if (rows.getAndIncrement() % EXPORT_FLUSH_ROWS == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private void writeCsv(OutputStream out) throws IOException {
+        var writer = new BufferedWriter(new OutputStreamWriter(out, UTF_8));
+        writer.write(UserCsvMapper.HEADER);
+        writer.write('\n');
+        writer.flush();
+        var rows = new AtomicLong();
+        userService.exportAll(dto -> {
+            try {
+                writer.write(csvMapper.toCsv(dto));
+                writer.write('\n');
+                if (rows.incrementAndGet() % EXPORT_FLUSH_ROWS == 0) {
+                    writer.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
 }
@@ -0,0 +1,45 @@
+package clear.solution.practisetest.controller;
+
+import clear.solution.practisetest.dto.ImportReportDTO;
+import clear.solution.practisetest.service.UserImportService;
+import clear.solution.practisetest.service.UserImportService.Format;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.MULTIPART_FORM_DATA_VALUE;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/users/import")
+@RequiredArgsConstructor
+public class UserImportController {
+
+    private final UserImportService importService;
+
+
+    @PostMapping(consumes = MULTIPART_FORM_DATA_VALUE, produces = APPLICATION_JSON_VALUE)
+    ImportReportDTO importUpload(@RequestPart MultipartFile file,
+                                 @RequestParam(required = false) String importId) throws IOException {
+        log.info("Received import request for uploaded file {}", file.getOriginalFilename());
+        var format = Format.of(file.getOriginalFilename());
+        return importService.importUsers(new InputStreamReader(file.getInputStream(), UTF_8), format, importId);
+    }
+
+    @PostMapping(params = "path", produces = APPLICATION_JSON_VALUE)
+    ImportReportDTO importFile(@RequestParam String path,
+                               @RequestParam(required = false) String importId) {
+        log.info("Received import request for local file {}", path);
+        return importService.importFile(path, importId);
+    }
+}
@@ -1,8 +1,13 @@
 package clear.solution.practisetest.controller.advice;
 
+import clear.solution.practisetest.exception.PreconditionFailedException;
 import clear.solution.practisetest.exception.ResourceInConflictException;
 import clear.solution.practisetest.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.*;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -22,18 +27,56 @@ import static org.springframework.http.HttpStatus.*;
 @RestControllerAdvice
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
+    private final Counter notFound;
+    private final Counter conflict;
+    private final Counter preconditionFailed;
+    private final Counter validation;
+
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.notFound = outcome(meterRegistry, "not_found");
+        this.conflict = outcome(meterRegistry, "conflict");
+        this.preconditionFailed = outcome(meterRegistry, "precondition_failed");
+        this.validation = outcome(meterRegistry, "validation");
+    }
+
     @ResponseStatus(NOT_FOUND)
     @ExceptionHandler(ResourceNotFoundException.class)
     ProblemDetail handleNotFound(ResourceNotFoundException ex) {
+        notFound.increment();
         return ProblemDetail.forStatusAndDetail(NOT_FOUND, ex.getLocalizedMessage());
     }
 
     @ResponseStatus(CONFLICT)
     @ExceptionHandler(ResourceInConflictException.class)
     ProblemDetail handleConflict(ResourceInConflictException ex) {
+        conflict.increment();
         return ProblemDetail.forStatusAndDetail(CONFLICT, ex.getLocalizedMessage());
     }
 
+    @ResponseStatus(PRECONDITION_FAILED)
+    @ExceptionHandler(PreconditionFailedException.class)
+    ProblemDetail handlePreconditionFailed(PreconditionFailedException ex) {
+        preconditionFailed.increment();
+        return ProblemDetail.forStatusAndDetail(PRECONDITION_FAILED, ex.getLocalizedMessage());
+    }
+
+    @ResponseStatus(PRECONDITION_FAILED)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    ProblemDetail handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        preconditionFailed.increment();
+        log.warn("Concurrent modification: {}", ex.getMessage());
+        return ProblemDetail.forStatusAndDetail(PRECONDITION_FAILED, "Resource was modified concurrently");
+    }
+
+    @ResponseStatus(CONFLICT)
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    ProblemDetail handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        conflict.increment();
+        log.warn("Data integrity violation: {}", ex.getMostSpecificCause().getMessage());
+        return ProblemDetail.forStatusAndDetail(CONFLICT, "Resource conflicts with existing data");
+    }
+
     @ResponseStatus(BAD_REQUEST)
     @ExceptionHandler(IllegalArgumentException.class)
     ProblemDetail handleBadRequest(IllegalArgumentException ex) {
@@ -54,6 +97,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
                                                                   HttpHeaders headers,
                                                                   HttpStatusCode status,
                                                                   WebRequest request) {
+        validation.increment();
         var errors = new HashMap<String, Set<String>>();
         ex.getAllErrors().forEach(e -> {
             var name = e.getObjectName();
@@ -70,4 +114,11 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         problemDetail.setProperty("errors", errors);
         return super.handleMethodArgumentNotValid(ex, headers, status, request);
     }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("user.errors")
+                .description("Rejected user requests by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 }
@@ -0,0 +1,75 @@
+package clear.solution.practisetest.controller.limit;
+
+import clear.solution.practisetest.config.UserLimitProperties.Budget;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+final class AdaptiveLimiter {
+
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double BASELINE_DECAY = 0.95;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final int rttWindow;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicReference<State> state;
+
+
+    AdaptiveLimiter(Budget budget, double tolerance, double smoothing, int rttWindow) {
+        this.minLimit = budget.minLimit();
+        this.maxLimit = Math.max(budget.minLimit(), budget.maxLimit());
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.rttWindow = rttWindow;
+        this.state = new AtomicReference<>(new State(Math.clamp(budget.initialLimit(), minLimit, maxLimit), 0));
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            var current = inFlight.get();
+            if (current >= limit()) return false;
+            if (inFlight.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    void release(long rttNanos, boolean dropped) {
+        var inFlightAtRelease = inFlight.getAndDecrement();
+        var rtt = Math.max(1, rttNanos);
+        state.updateAndGet(current -> next(current, rtt, dropped, inFlightAtRelease));
+    }
+
+    int limit() {
+        return (int) state.get().estimate();
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    private State next(State current, long rtt, boolean dropped, int inFlightAtRelease) {
+        var estimate = current.estimate();
+        if (dropped) {
+            return new State(Math.max(minLimit, estimate * BACKOFF_RATIO), current.longRtt());
+        }
+
+        var longRtt = current.longRtt() == 0 ? rtt : current.longRtt() + (rtt - current.longRtt()) / rttWindow;
+        if (longRtt / rtt > 2) {
+            longRtt *= BASELINE_DECAY;
+        }
+        if (inFlightAtRelease < estimate / 2) {
+            return new State(estimate, longRtt);
+        }
+
+        var gradient = Math.clamp(tolerance * longRtt / rtt, MIN_GRADIENT, 1.0);
+        var target = estimate * gradient + Math.sqrt(estimate);
+        return new State(Math.clamp(estimate * (1 - smoothing) + target * smoothing, minLimit, maxLimit), longRtt);
+    }
+
+    private record State(double estimate, double longRtt) {
+    }
+}
@@ -0,0 +1,151 @@
+package clear.solution.practisetest.controller.limit;
+
+import clear.solution.practisetest.config.UserLimitProperties;
+import clear.solution.practisetest.config.UserLimitProperties.Budget;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ProblemDetail;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Set;
+
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static org.springframework.http.MediaType.APPLICATION_PROBLEM_JSON_VALUE;
+
+@Slf4j
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String USERS_PATH = "/api/v1/users";
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    private static final Set<String> LONG_RUNNING_PATHS = Set.of(
+            USERS_PATH + "/export", USERS_PATH + "/import", USERS_PATH + "/batch", USERS_PATH + "/delete");
+
+    private final boolean enabled;
+    private final String retryAfter;
+    private final ObjectMapper objectMapper;
+    private final Limit reads;
+    private final Limit writes;
+
+
+    public ConcurrencyLimitFilter(UserLimitProperties limitProps, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.enabled = limitProps.enabled();
+        this.retryAfter = Long.toString(Math.max(1, limitProps.retryAfter().toSeconds()));
+        this.objectMapper = objectMapper;
+        this.reads = new Limit("read", limiter(limitProps, limitProps.read()), meterRegistry);
+        this.writes = new Limit("write", limiter(limitProps, limitProps.write()), meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith(USERS_PATH) || isLongRunning(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        var budget = READ_METHODS.contains(request.getMethod()) ? reads : writes;
+        if (!budget.limiter.tryAcquire()) {
+            budget.rejections.increment();
+            reject(request, response, budget);
+            return;
+        }
+
+        var start = System.nanoTime();
+        var dropped = true;
+        try {
+            chain.doFilter(request, response);
+            dropped = response.getStatus() >= 500;
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new Release(budget.limiter, start, response));
+            } else {
+                budget.limiter.release(System.nanoTime() - start, dropped);
+            }
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, Limit budget) throws IOException {
+        log.debug("Rejected {} {}: {} limit {} reached", request.getMethod(), request.getRequestURI(),
+                budget.name, budget.limiter.limit());
+        var problem = ProblemDetail.forStatusAndDetail(SERVICE_UNAVAILABLE,
+                "Too many concurrent %s requests, retry later".formatted(budget.name));
+        problem.setInstance(URI.create(request.getRequestURI()));
+
+        response.setStatus(SERVICE_UNAVAILABLE.value());
+        response.setHeader(RETRY_AFTER, retryAfter);
+        response.setContentType(APPLICATION_PROBLEM_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), problem);
+    }
+
+    private static boolean isLongRunning(HttpServletRequest request) {
+        var path = request.getRequestURI();
+        if (path.equals(USERS_PATH)) {
+            return "DELETE".equals(request.getMethod()) || "PATCH".equals(request.getMethod());
+        }
+        return LONG_RUNNING_PATHS.stream().anyMatch(path::startsWith);
+    }
+
+    private static AdaptiveLimiter limiter(UserLimitProperties limitProps, Budget budget) {
+        return new AdaptiveLimiter(budget, limitProps.tolerance(), limitProps.smoothing(), limitProps.rttWindow());
+    }
+
+    private static final class Limit {
+
+        private final String name;
+        private final AdaptiveLimiter limiter;
+        private final Counter rejections;
+
+
+        private Limit(String name, AdaptiveLimiter limiter, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.limiter = limiter;
+            this.rejections = Counter.builder("user.limit.rejections")
+                    .description("User API requests shed by the concurrency limit")
+                    .tag("budget", name)
+                    .register(meterRegistry);
+            Gauge.builder("user.limit.limit", limiter, AdaptiveLimiter::limit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("budget", name)
+                    .register(meterRegistry);
+            Gauge.builder("user.limit.in.flight", limiter, AdaptiveLimiter::inFlight)
+                    .description("User API requests currently holding a permit")
+                    .tag("budget", name)
+                    .register(meterRegistry);
+        }
+    }
+
+    private record Release(AdaptiveLimiter limiter, long start, HttpServletResponse response) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            limiter.release(System.nanoTime() - start, response.getStatus() >= 500);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package clear.solution.practisetest.dto;
+
+public record BulkResultDTO(
+        long affected
+) {
+}
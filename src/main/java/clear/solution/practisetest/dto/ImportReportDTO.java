@@ -0,0 +1,12 @@
+package clear.solution.practisetest.dto;
+
+import java.util.List;
+
+public record ImportReportDTO(
+        long processed,
+        long created,
+        long rejected,
+        long checkpoint,
+        List<RejectedRowDTO> rejections
+) {
+}
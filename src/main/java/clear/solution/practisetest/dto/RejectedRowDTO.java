@@ -0,0 +1,9 @@
+package clear.solution.practisetest.dto;
+
+import java.util.Collection;
+
+public record RejectedRowDTO(
+        long row,
+        Collection<String> errors
+) {
+}
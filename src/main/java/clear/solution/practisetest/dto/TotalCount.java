@@ -0,0 +1,14 @@
+package clear.solution.practisetest.dto;
+
+public record TotalCount(
+        long value,
+        Strategy strategy
+) {
+    public enum Strategy {
+        EXACT, CACHED, COUNTER, ESTIMATED
+    }
+
+    public static TotalCount exact(long value) {
+        return new TotalCount(value, Strategy.EXACT);
+    }
+}
@@ -0,0 +1,16 @@
+package clear.solution.practisetest.dto;
+
+import clear.solution.practisetest.dto.validation.Groups.Create;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record UserBatchDTO(
+
+        @Size(max = 1000, groups = Create.class, message = "Batch must contain at most 1000 users")
+        @NotEmpty(groups = Create.class, message = "Batch must not be empty")
+        List<@Valid UserDTO> users
+) {
+}
@@ -0,0 +1,33 @@
+package clear.solution.practisetest.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
+
+@JsonInclude(NON_NULL)
+public record UserBatchResultDTO(
+        int index,
+        Status status,
+        UserDTO user,
+        String error
+) {
+    public enum Status {
+        CREATED, CONFLICT, REJECTED, FAILED
+    }
+
+    public static UserBatchResultDTO created(int index, UserDTO user) {
+        return new UserBatchResultDTO(index, Status.CREATED, user, null);
+    }
+
+    public static UserBatchResultDTO conflict(int index, String error) {
+        return new UserBatchResultDTO(index, Status.CONFLICT, null, error);
+    }
+
+    public static UserBatchResultDTO rejected(int index, String error) {
+        return new UserBatchResultDTO(index, Status.REJECTED, null, error);
+    }
+
+    public static UserBatchResultDTO failed(int index, String error) {
+        return new UserBatchResultDTO(index, Status.FAILED, null, error);
+    }
+}
@@ -0,0 +1,21 @@
+package clear.solution.practisetest.dto;
+
+import clear.solution.practisetest.dto.validation.Groups.PartialUpdate;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record UserBulkPatchDTO(
+
+        @Size(max = 10000, groups = PartialUpdate.class, message = "Bulk request must contain at most 10000 ids")
+        @NotEmpty(groups = PartialUpdate.class, message = "Ids must not be empty")
+        List<@NotNull(groups = PartialUpdate.class, message = "Id must not be null") Long> ids,
+
+        @Valid
+        @NotNull(groups = PartialUpdate.class, message = "Changes are required")
+        UserDTO changes
+) {
+}
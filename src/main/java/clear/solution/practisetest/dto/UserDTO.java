@@ -3,6 +3,8 @@ package clear.solution.practisetest.dto;
 import clear.solution.practisetest.dto.validation.Groups.Create;
 import clear.solution.practisetest.dto.validation.Groups.FullUpdate;
 import clear.solution.practisetest.dto.validation.Groups.PartialUpdate;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
@@ -43,8 +45,12 @@ public record UserDTO(
 
         @Size(groups = {Create.class, PartialUpdate.class, FullUpdate.class}, min = 12, max = 12,
                 message = "Phone number must be 12 symbols")
-        String phoneNumber
+        String phoneNumber,
+
+        @JsonIgnore
+        Long version
 ) {
+    @JsonCreator
     public UserDTO(Long id,
                    String email,
                    String firstName,
@@ -52,6 +58,17 @@ public record UserDTO(
                    LocalDate birthDate,
                    AddressDTO address,
                    String phoneNumber) {
+        this(id, email, firstName, lastName, birthDate, address, phoneNumber, null);
+    }
+
+    public UserDTO(Long id,
+                   String email,
+                   String firstName,
+                   String lastName,
+                   LocalDate birthDate,
+                   AddressDTO address,
+                   String phoneNumber,
+                   Long version) {
         this.id = id;
         this.email = email != null? email.trim(): null;
         this.firstName = firstName != null? firstName.trim(): null;
@@ -59,5 +76,10 @@ public record UserDTO(
         this.birthDate = birthDate;
         this.address = address;
         this.phoneNumber = phoneNumber != null? phoneNumber.trim(): null;
+        this.version = version;
+    }
+
+    public UserDTO withVersion(Long version) {
+        return new UserDTO(id, email, firstName, lastName, birthDate, address, phoneNumber, version);
     }
 }
@@ -0,0 +1,15 @@
+package clear.solution.practisetest.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record UserIdsDTO(
+
+        @Size(max = 10000, message = "Bulk request must contain at most 10000 ids")
+        @NotEmpty(message = "Ids must not be empty")
+        List<@NotNull(message = "Id must not be null") Long> ids
+) {
+}
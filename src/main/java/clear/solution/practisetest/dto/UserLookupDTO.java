@@ -0,0 +1,9 @@
+package clear.solution.practisetest.dto;
+
+import java.util.List;
+
+public record UserLookupDTO(
+        List<UserDTO> users,
+        List<Long> missing
+) {
+}
@@ -0,0 +1,233 @@
+package clear.solution.practisetest.dto.json;
+
+import clear.solution.practisetest.dto.AddressDTO;
+import clear.solution.practisetest.dto.UserDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+@JsonComponent
+@ConditionalOnProperty(prefix = "user.json", name = "fast-path", havingValue = "true", matchIfMissing = true)
+public class UserJsonComponent {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString EMAIL = new SerializedString("email");
+    private static final SerializableString FIRST_NAME = new SerializedString("firstName");
+    private static final SerializableString LAST_NAME = new SerializedString("lastName");
+    private static final SerializableString BIRTH_DATE = new SerializedString("birthDate");
+    private static final SerializableString ADDRESS = new SerializedString("address");
+    private static final SerializableString PHONE_NUMBER = new SerializedString("phoneNumber");
+    private static final SerializableString CITY = new SerializedString("city");
+    private static final SerializableString COUNTRY = new SerializedString("country");
+    private static final SerializableString POST_CODE = new SerializedString("postCode");
+    private static final SerializableString STATE = new SerializedString("state");
+    private static final SerializableString STREET_NAME = new SerializedString("streetName");
+    private static final SerializableString STREET_NUMBER = new SerializedString("streetNumber");
+
+
+    public static class UserSerializer extends JsonSerializer<UserDTO> {
+
+        @Override
+        public void serialize(UserDTO dto, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(dto);
+            gen.writeFieldName(ID);
+            if (dto.id() == null) {
+                gen.writeNull();
+            } else {
+                gen.writeNumber(dto.id());
+            }
+            writeString(gen, EMAIL, dto.email());
+            writeString(gen, FIRST_NAME, dto.firstName());
+            writeString(gen, LAST_NAME, dto.lastName());
+            gen.writeFieldName(BIRTH_DATE);
+            writeDate(gen, dto.birthDate());
+            gen.writeFieldName(ADDRESS);
+            if (dto.address() == null) {
+                gen.writeNull();
+            } else {
+                writeAddress(dto.address(), gen);
+            }
+            writeString(gen, PHONE_NUMBER, dto.phoneNumber());
+            gen.writeEndObject();
+        }
+
+        @Override
+        public Class<UserDTO> handledType() {
+            return UserDTO.class;
+        }
+    }
+
+    public static class AddressSerializer extends JsonSerializer<AddressDTO> {
+
+        @Override
+        public void serialize(AddressDTO dto, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            writeAddress(dto, gen);
+        }
+
+        @Override
+        public Class<AddressDTO> handledType() {
+            return AddressDTO.class;
+        }
+    }
+
+    public static class UserDeserializer extends JsonDeserializer<UserDTO> {
+
+        @Override
+        public UserDTO deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            String email = null;
+            String firstName = null;
+            String lastName = null;
+            LocalDate birthDate = null;
+            AddressDTO address = null;
+            String phoneNumber = null;
+
+            for (var name = firstField(p, ctxt, UserDTO.class); name != null; name = p.nextFieldName()) {
+                p.nextToken();
+                switch (name) {
+                    case "email" -> email = readString(p, ctxt);
+                    case "firstName" -> firstName = readString(p, ctxt);
+                    case "lastName" -> lastName = readString(p, ctxt);
+                    case "birthDate" -> birthDate = readDate(p, ctxt);
+                    case "address" -> address = p.hasToken(JsonToken.VALUE_NULL) ? null : readAddress(p, ctxt);
+                    case "phoneNumber" -> phoneNumber = readString(p, ctxt);
+                    default -> p.skipChildren();
+                }
+            }
+            return new UserDTO(null, email, firstName, lastName, birthDate, address, phoneNumber);
+        }
+
+        @Override
+        public Class<UserDTO> handledType() {
+            return UserDTO.class;
+        }
+    }
+
+    public static class AddressDeserializer extends JsonDeserializer<AddressDTO> {
+
+        @Override
+        public AddressDTO deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            return readAddress(p, ctxt);
+        }
+
+        @Override
+        public Class<AddressDTO> handledType() {
+            return AddressDTO.class;
+        }
+    }
+
+    private static void writeAddress(AddressDTO dto, JsonGenerator gen) throws IOException {
+        gen.writeStartObject(dto);
+        writeString(gen, CITY, dto.city());
+        writeString(gen, COUNTRY, dto.country());
+        writeString(gen, POST_CODE, dto.postCode());
+        writeString(gen, STATE, dto.state());
+        writeString(gen, STREET_NAME, dto.streetName());
+        writeString(gen, STREET_NUMBER, dto.streetNumber());
+        gen.writeEndObject();
+    }
+
+    private static void writeDate(JsonGenerator gen, LocalDate date) throws IOException {
+        if (date == null) {
+            gen.writeNull();
+            return;
+        }
+        if (date.getYear() < 0 || date.getYear() > 9999) {
+            gen.writeString(date.toString());
+            return;
+        }
+        var chars = new char[10];
+        writeDigits(chars, 0, 4, date.getYear());
+        chars[4] = '-';
+        writeDigits(chars, 5, 2, date.getMonthValue());
+        chars[7] = '-';
+        writeDigits(chars, 8, 2, date.getDayOfMonth());
+        gen.writeString(chars, 0, chars.length);
+    }
+
+    private static void writeDigits(char[] chars, int offset, int length, int value) {
+        for (int i = offset + length - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static void writeString(JsonGenerator gen, SerializableString name, String value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(value);
+        }
+    }
+
+    private static AddressDTO readAddress(JsonParser p, DeserializationContext ctxt) throws IOException {
+        String city = null;
+        String country = null;
+        String postCode = null;
+        String state = null;
+        String streetName = null;
+        String streetNumber = null;
+
+        for (var name = firstField(p, ctxt, AddressDTO.class); name != null; name = p.nextFieldName()) {
+            p.nextToken();
+            switch (name) {
+                case "city" -> city = readString(p, ctxt);
+                case "country" -> country = readString(p, ctxt);
+                case "postCode" -> postCode = readString(p, ctxt);
+                case "state" -> state = readString(p, ctxt);
+                case "streetName" -> streetName = readString(p, ctxt);
+                case "streetNumber" -> streetNumber = readString(p, ctxt);
+                default -> p.skipChildren();
+            }
+        }
+        return new AddressDTO(city, country, postCode, state, streetName, streetNumber);
+    }
+
+    private static String firstField(JsonParser p, DeserializationContext ctxt, Class<?> type) throws IOException {
+        if (p.isExpectedStartObjectToken()) {
+            return p.nextFieldName();
+        }
+        if (p.hasToken(JsonToken.FIELD_NAME)) {
+            return p.currentName();
+        }
+        if (p.hasToken(JsonToken.END_OBJECT)) {
+            return null;
+        }
+        ctxt.handleUnexpectedToken(type, p);
+        return null;
+    }
+
+    private static String readString(JsonParser p, DeserializationContext ctxt) throws IOException {
+        return switch (p.currentToken()) {
+            case VALUE_STRING -> p.getText();
+            case VALUE_NULL -> null;
+            default -> ctxt.readValue(p, String.class);
+        };
+    }
+
+    private static LocalDate readDate(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.hasToken(JsonToken.VALUE_NULL)) {
+            return null;
+        }
+        if (p.hasToken(JsonToken.VALUE_STRING) && p.getTextLength() == 10) {
+            try {
+                return LocalDate.parse(p.getText());
+            } catch (DateTimeParseException e) {
+                return ctxt.readValue(p, LocalDate.class);
+            }
+        }
+        return ctxt.readValue(p, LocalDate.class);
+    }
+}
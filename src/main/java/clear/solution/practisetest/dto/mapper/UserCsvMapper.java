@@ -0,0 +1,116 @@
+package clear.solution.practisetest.dto.mapper;
+
+import clear.solution.practisetest.dto.AddressDTO;
+import clear.solution.practisetest.dto.UserDTO;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+@Component
+public class UserCsvMapper {
+
+    public static final String HEADER = "id,email,firstName,lastName,birthDate,phoneNumber,"
+            + "city,country,postCode,state,streetName,streetNumber";
+    private static final int COLUMNS = 12;
+
+
+    public String toCsv(UserDTO dto) {
+        var address = dto.address() != null
+                ? dto.address()
+                : new AddressDTO(null, null, null, null, null, null);
+        var line = new StringBuilder(128);
+        append(line, dto.id()).append(',');
+        append(line, dto.email()).append(',');
+        append(line, dto.firstName()).append(',');
+        append(line, dto.lastName()).append(',');
+        append(line, dto.birthDate()).append(',');
+        append(line, dto.phoneNumber()).append(',');
+        append(line, address.city()).append(',');
+        append(line, address.country()).append(',');
+        append(line, address.postCode()).append(',');
+        append(line, address.state()).append(',');
+        append(line, address.streetName()).append(',');
+        append(line, address.streetNumber());
+        return line.toString();
+    }
+
+    public UserDTO fromCsv(String record) {
+        var fields = split(record);
+        if (fields.size() != COLUMNS) {
+            throw new IllegalArgumentException(
+                    "Row must have %d columns but has %d".formatted(COLUMNS, fields.size()));
+        }
+
+        LocalDate birthDate;
+        try {
+            birthDate = fields.get(4) != null ? LocalDate.parse(fields.get(4)) : null;
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Birth date is not valid");
+        }
+        var address = fields.subList(6, COLUMNS).stream().allMatch(Objects::isNull)
+                ? null
+                : new AddressDTO(fields.get(6), fields.get(7), fields.get(8),
+                fields.get(9), fields.get(10), fields.get(11));
+        return new UserDTO(null, fields.get(1), fields.get(2), fields.get(3),
+                birthDate, address, fields.get(5));
+    }
+
+    public boolean isComplete(CharSequence record) {
+        int quotes = 0;
+        for (int i = 0; i < record.length(); i++) {
+            if (record.charAt(i) == '"') quotes++;
+        }
+        return quotes % 2 == 0;
+    }
+
+    private static List<String> split(String record) {
+        var fields = new ArrayList<String>(COLUMNS);
+        var field = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == ',') {
+                fields.add(toField(field, wasQuoted));
+                field.setLength(0);
+                wasQuoted = false;
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Row has an unterminated quoted field");
+        }
+        fields.add(toField(field, wasQuoted));
+        return fields;
+    }
+
+    private static String toField(StringBuilder field, boolean quoted) {
+        return field.isEmpty() && !quoted ? null : field.toString();
+    }
+
+    private static StringBuilder append(StringBuilder line, Object value) {
+        if (value == null) return line;
+        var text = Objects.toString(value);
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return line.append(text);
+        }
+        return line.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
+}
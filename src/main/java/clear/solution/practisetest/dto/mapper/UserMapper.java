@@ -1,7 +1,9 @@
 package clear.solution.practisetest.dto.mapper;
 
 import clear.solution.practisetest.dto.UserDTO;
+import clear.solution.practisetest.dto.AddressDTO;
 import clear.solution.practisetest.model.User;
+import clear.solution.practisetest.repository.UserView;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
@@ -21,7 +23,25 @@ public class UserMapper {
                 user.getLastName(),
                 user.getBirthDate(),
                 addressMapper.toDTO(user.getAddress()),
-                user.getPhoneNumber());
+                user.getPhoneNumber(),
+                user.getVersion());
+    }
+
+    public UserDTO toDTO(UserView view) {
+        if (view == null) return null;
+        var address = view.city() == null && view.country() == null && view.postCode() == null
+                && view.state() == null && view.streetName() == null && view.streetNumber() == null
+                ? null
+                : new AddressDTO(view.city(), view.country(), view.postCode(),
+                view.state(), view.streetName(), view.streetNumber());
+        return new UserDTO(view.id(),
+                view.email(),
+                view.firstName(),
+                view.lastName(),
+                view.birthDate(),
+                address,
+                view.phoneNumber(),
+                view.version());
     }
 
     public User toEntity(UserDTO dto) {
@@ -0,0 +1,42 @@
+package clear.solution.practisetest.dto.validation;
+
+final class EmailScanner {
+
+    private EmailScanner() {
+    }
+
+    static boolean isValid(CharSequence email) {
+        int length = email.length();
+        int i = 0;
+        while (i < length && isLocal(email.charAt(i))) {
+            i++;
+        }
+        if (i == 0 || i == length || email.charAt(i) != '@') {
+            return false;
+        }
+
+        int dots = 0;
+        int label = 0;
+        for (i++; i < length; i++) {
+            var c = email.charAt(i);
+            if (c == '.') {
+                if (label == 0) return false;
+                dots++;
+                label = 0;
+            } else if (isWord(c) || c == '-') {
+                label++;
+            } else {
+                return false;
+            }
+        }
+        return dots > 0 && label >= 2 && label <= 4;
+    }
+
+    private static boolean isLocal(char c) {
+        return isWord(c) || c == '-' || c == '.';
+    }
+
+    private static boolean isWord(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_';
+    }
+}
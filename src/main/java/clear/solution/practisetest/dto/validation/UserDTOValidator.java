@@ -0,0 +1,190 @@
+package clear.solution.practisetest.dto.validation;
+
+import clear.solution.practisetest.dto.AddressDTO;
+import clear.solution.practisetest.dto.UserBatchDTO;
+import clear.solution.practisetest.dto.UserDTO;
+import clear.solution.practisetest.dto.validation.Groups.Create;
+import clear.solution.practisetest.dto.validation.Groups.FullUpdate;
+import clear.solution.practisetest.dto.validation.Groups.PartialUpdate;
+import jakarta.validation.Validator;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.SmartValidator;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+import java.time.LocalDate;
+
+@Component
+public class UserDTOValidator implements SmartValidator {
+
+    private static final Rules REQUIRED = new Rules(true);
+    private static final Rules OPTIONAL = new Rules(false);
+
+    private final SmartValidator fallback;
+
+
+    public UserDTOValidator(Validator validator) {
+        this.fallback = new SpringValidatorAdapter(validator);
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return UserDTO.class == clazz || UserBatchDTO.class == clazz;
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        fallback.validate(target, errors);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors, Object... validationHints) {
+        var rules = rules(validationHints);
+        if (rules == null || target == null || !supports(target.getClass())) {
+            fallback.validate(target, errors, validationHints);
+            return;
+        }
+
+        var violations = violations(errors);
+        if (target instanceof UserBatchDTO batch) {
+            validate(batch, rules, violations);
+        } else {
+            validate((UserDTO) target, rules, "", violations);
+        }
+    }
+
+    public void validate(UserDTO dto, Class<?> group, Violations violations) {
+        var rules = rules(group);
+        if (rules == null) {
+            throw new IllegalArgumentException("Unknown validation group " + group);
+        }
+        validate(dto, rules, "", violations);
+    }
+
+    private static void validate(UserBatchDTO batch, Rules rules, Violations violations) {
+        var users = batch.users();
+        if (users == null || users.isEmpty()) {
+            violations.reject("users", "NotEmpty", "Batch must not be empty", users);
+        }
+        if (users == null) return;
+        if (users.size() > 1000) {
+            violations.reject("users", "Size", "Batch must contain at most 1000 users", users);
+        }
+        for (int i = 0; i < users.size(); i++) {
+            var user = users.get(i);
+            if (user != null) {
+                validate(user, rules, "users[" + i + "].", violations);
+            }
+        }
+    }
+
+    private static void validate(UserDTO dto, Rules rules, String path, Violations violations) {
+        var email = dto.email();
+        if (email != null && email.length() > 320) {
+            reject(violations, path, "email", "Size", "Email must be lower than 320 symbols", email);
+        }
+        if (email != null && !EmailScanner.isValid(email)) {
+            reject(violations, path, "email", "Pattern", "Email address are not valid", email);
+        }
+        if (rules.required() && isBlank(email)) {
+            reject(violations, path, "email", "NotBlank", "Email must not be blank", email);
+        }
+
+        checkSize(dto.firstName(), 2, 30, path, "firstName",
+                "First name must be between 2 and 30 symbols", violations);
+        if (rules.required() && isBlank(dto.firstName())) {
+            reject(violations, path, "firstName", "NotBlank", "Email must not be blank", dto.firstName());
+        }
+
+        checkSize(dto.lastName(), 2, 30, path, "lastName",
+                "Last name must be between 2 and 30 symbols", violations);
+        if (rules.required() && isBlank(dto.lastName())) {
+            reject(violations, path, "lastName", "NotBlank", "Email must not be blank", dto.lastName());
+        }
+
+        var birthDate = dto.birthDate();
+        if (birthDate != null && !birthDate.isBefore(LocalDate.now())) {
+            reject(violations, path, "birthDate", "Past", "Birth date must be in past", birthDate);
+        }
+        if (rules.required() && birthDate == null) {
+            reject(violations, path, "birthDate", "NotNull", "Birth date is required", null);
+        }
+
+        if (dto.address() != null) {
+            validate(dto.address(), path.isEmpty() ? "address." : path + "address.", violations);
+        }
+
+        checkSize(dto.phoneNumber(), 12, 12, path, "phoneNumber",
+                "Phone number must be 12 symbols", violations);
+    }
+
+    private static void validate(AddressDTO dto, String path, Violations violations) {
+        checkSize(dto.city(), 2, 50, path, "city", "City must be between 2 and 50 symbols", violations);
+        if (isBlank(dto.city())) {
+            reject(violations, path, "city", "NotBlank", "City must not be blank", dto.city());
+        }
+        checkSize(dto.country(), 2, 50, path, "country",
+                "Country must be between 2 and 50 symbols", violations);
+        if (isBlank(dto.country())) {
+            reject(violations, path, "country", "NotBlank", "Country must not be blank", dto.country());
+        }
+        checkSize(dto.postCode(), 10, 10, path, "postCode", "Post code must 10 symbols", violations);
+        checkSize(dto.state(), 2, 50, path, "state", "State must be between 2 and 50 symbols", violations);
+        checkSize(dto.streetName(), 2, 50, path, "streetName",
+                "Street name be between 2 and 50 symbols", violations);
+        checkSize(dto.streetNumber(), 2, 50, path, "streetNumber",
+                "Street number must be between 2 and 50 symbols", violations);
+    }
+
+    private static void checkSize(String value, int min, int max, String path, String field, String message,
+                                  Violations violations) {
+        if (value != null && (value.length() < min || value.length() > max)) {
+            reject(violations, path, field, "Size", message, value);
+        }
+    }
+
+    private static void reject(Violations violations, String path, String field,
+                               String code, String message, Object value) {
+        violations.reject(path.isEmpty() ? field : path + field, code, message, value);
+    }
+
+    private static boolean isBlank(String value) {
+        if (value == null) return true;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') return false;
+        }
+        return true;
+    }
+
+    private static Rules rules(Object... hints) {
+        if (hints.length == 0) return null;
+        var required = false;
+        for (var hint : hints) {
+            if (hint == Create.class || hint == FullUpdate.class) {
+                required = true;
+            } else if (hint != PartialUpdate.class) {
+                return null;
+            }
+        }
+        return required ? REQUIRED : OPTIONAL;
+    }
+
+    private static Violations violations(Errors errors) {
+        if (errors instanceof BindingResult result) {
+            return (field, code, message, value) -> result.addError(new FieldError(result.getObjectName(),
+                    result.getNestedPath() + field, value, false, result.resolveMessageCodes(code, field),
+                    null, message));
+        }
+        return (field, code, message, value) -> errors.rejectValue(field, code, message);
+    }
+
+    @FunctionalInterface
+    public interface Violations {
+        void reject(String field, String code, String message, Object value);
+    }
+
+    private record Rules(boolean required) {
+    }
+}
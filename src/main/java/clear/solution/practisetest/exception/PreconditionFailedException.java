@@ -0,0 +1,12 @@
+package clear.solution.practisetest.exception;
+
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
+
+@ResponseStatus(PRECONDITION_FAILED)
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
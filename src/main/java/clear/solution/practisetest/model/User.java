@@ -2,25 +2,31 @@ package clear.solution.practisetest.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import org.hibernate.proxy.HibernateProxy;
 
 import java.time.LocalDate;
 import java.util.Objects;
 
-import static jakarta.persistence.GenerationType.IDENTITY;
-
 @Getter
 @Setter
 @ToString
 @AllArgsConstructor
 @RequiredArgsConstructor
 @Builder
+@DynamicUpdate
 @Table(name = "users")
 @Entity
 public class User {
 
     @Id
-    @GeneratedValue(strategy = IDENTITY)
+    @GeneratedValue(generator = "users_seq")
+    @GenericGenerator(name = "users_seq", type = UserIdGenerator.class, parameters = {
+            @Parameter(name = "sequence_name", value = "users_seq"),
+            @Parameter(name = "increment_size", value = "50")
+    })
     private Long id;
 
     @Column(length = 320, unique = true, nullable = false)
@@ -39,6 +45,10 @@ public class User {
 
     private String phoneNumber;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
 
     @Override
     public final boolean equals(Object o) {
@@ -0,0 +1,40 @@
+package clear.solution.practisetest.model;
+
+import clear.solution.practisetest.sharding.ShardContext;
+import clear.solution.practisetest.sharding.ShardIdGenerator;
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+public class UserIdGenerator extends SequenceStyleGenerator {
+
+    public static final String SHARD_IDS = "user.sharding.id-generator";
+
+    private ShardIdGenerator shardIds;
+
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        super.configure(type, parameters, serviceRegistry);
+        shardIds = (ShardIdGenerator) serviceRegistry.requireService(ConfigurationService.class)
+                .getSettings()
+                .get(SHARD_IDS);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        if (shardIds == null) {
+            return super.generate(session, object);
+        }
+        var shard = ShardContext.current();
+        if (shard == null) {
+            throw new IllegalStateException("Users must be persisted on a shard when sharding is enabled");
+        }
+        return shardIds.next(shard);
+    }
+}
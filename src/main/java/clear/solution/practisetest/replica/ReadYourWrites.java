@@ -0,0 +1,46 @@
+package clear.solution.practisetest.replica;
+
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static Scope open() {
+        var scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    public static void wrote() {
+        var scope = CURRENT.get();
+        if (scope != null) {
+            scope.wrote = true;
+        }
+    }
+
+    public static boolean sticky() {
+        var scope = CURRENT.get();
+        return scope != null && scope.wrote;
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final Scope previous;
+        private boolean wrote;
+
+        private Scope(Scope previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
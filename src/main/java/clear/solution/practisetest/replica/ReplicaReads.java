@@ -0,0 +1,25 @@
+package clear.solution.practisetest.replica;
+
+/**
+ * Counts replica connections handed out to the current thread, so a caller can tell
+ * whether a piece of work may have read lagging data.
+ */
+public final class ReplicaReads {
+
+    private static final ThreadLocal<long[]> SERVED = ThreadLocal.withInitial(() -> new long[1]);
+
+    private ReplicaReads() {
+    }
+
+    public static long mark() {
+        return SERVED.get()[0];
+    }
+
+    public static boolean servedSince(long mark) {
+        return SERVED.get()[0] != mark;
+    }
+
+    static void served() {
+        SERVED.get()[0]++;
+    }
+}
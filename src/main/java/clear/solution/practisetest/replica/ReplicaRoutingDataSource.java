@@ -0,0 +1,146 @@
+package clear.solution.practisetest.replica;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final int probeTimeoutSeconds;
+    private final int failureThreshold;
+    private final AtomicInteger failures = new AtomicInteger();
+    private final Counter toReplica;
+    private final Counter sticky;
+    private final Counter down;
+    private final Counter fallback;
+    private final Counter probeFailures;
+    private final ScheduledExecutorService prober;
+    private volatile boolean up = true;
+
+
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    DataSource replica,
+                                    Duration probeInterval,
+                                    Duration probeTimeout,
+                                    int failureThreshold,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.probeTimeoutSeconds = (int) Math.max(1, probeTimeout.toSeconds());
+        this.failureThreshold = failureThreshold;
+        this.toReplica = reads(meterRegistry, "replica", "replica");
+        this.sticky = reads(meterRegistry, "primary", "sticky");
+        this.down = reads(meterRegistry, "primary", "replica_down");
+        this.fallback = reads(meterRegistry, "primary", "fallback");
+        this.probeFailures = Counter.builder("user.replica.probe.failures")
+                .description("Failed replica health probes")
+                .register(meterRegistry);
+        Gauge.builder("user.replica.up", this, dataSource -> dataSource.up ? 1 : 0)
+                .description("Whether read-only transactions are sent to the replica")
+                .register(meterRegistry);
+
+        this.prober = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("user-replica-probe")
+                .daemon()
+                .factory());
+        prober.scheduleWithFixedDelay(this::probe,
+                probeInterval.toMillis(), probeInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isUp() {
+        return up;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    public void probe() {
+        try (var connection = replica.getConnection()) {
+            if (!connection.isValid(probeTimeoutSeconds)) {
+                throw new SQLException("Replica connection is not valid");
+            }
+            failures.set(0);
+            if (!up) {
+                up = true;
+                log.info("Replica is healthy again, routing reads to it");
+            }
+        } catch (SQLException e) {
+            probeFailures.increment();
+            if (failures.incrementAndGet() >= failureThreshold) {
+                markDown(e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        prober.shutdownNow();
+    }
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        if (ReadYourWrites.sticky()) {
+            sticky.increment();
+            return source.open(primary);
+        }
+        if (!up) {
+            down.increment();
+            return source.open(primary);
+        }
+
+        try {
+            var connection = source.open(replica);
+            toReplica.increment();
+            ReplicaReads.served();
+            return connection;
+        } catch (SQLFeatureNotSupportedException e) {
+            throw e;
+        } catch (SQLException e) {
+            markDown(e);
+            fallback.increment();
+            return source.open(primary);
+        }
+    }
+
+    private void markDown(SQLException e) {
+        failures.set(Math.max(failures.get(), failureThreshold));
+        if (up) {
+            up = false;
+            log.warn("Replica is unavailable, routing reads to primary: {}", e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+
+    private static Counter reads(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("user.replica.reads")
+                .description("Read-only transaction connections by target")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
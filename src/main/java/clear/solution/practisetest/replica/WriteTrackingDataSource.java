@@ -0,0 +1,26 @@
+package clear.solution.practisetest.replica;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+public class WriteTrackingDataSource extends DelegatingDataSource {
+
+    public WriteTrackingDataSource(DataSource primary) {
+        super(primary);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        ReadYourWrites.wrote();
+        return super.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        ReadYourWrites.wrote();
+        return super.getConnection(username, password);
+    }
+}
@@ -1,13 +1,72 @@
 package clear.solution.practisetest.repository;
 
 import clear.solution.practisetest.model.User;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    String VIEW = "select new clear.solution.practisetest.repository.UserView(u.id, u.email, u.firstName, "
+            + "u.lastName, u.birthDate, u.address.city, u.address.country, u.address.postCode, u.address.state, "
+            + "u.address.streetName, u.address.streetNumber, u.phoneNumber, u.version) from User u";
+
     boolean existsByEmail(String email);
-    Page<User> findAllByBirthDateBetween(LocalDate from, LocalDate to, Pageable pageable);
+    boolean existsByEmailAndIdNot(String email, Long id);
+    Window<User> findAllByOrderByIdAsc(ScrollPosition position, Limit limit);
+    Window<User> findAllByBirthDateBetweenOrderByBirthDateAscIdAsc(LocalDate from, LocalDate to,
+                                                                   ScrollPosition position, Limit limit);
+    long countByBirthDateBetween(LocalDate from, LocalDate to);
+
+    @Query(VIEW)
+    Slice<UserView> findAllViews(Pageable pageable);
+
+    @Query(VIEW + " where u.birthDate between :from and :to")
+    Slice<UserView> findAllViewsByBirthDateBetween(LocalDate from, LocalDate to, Pageable pageable);
+
+    @Query(VIEW + " where u.id = :id")
+    Optional<UserView> findViewById(Long id);
+
+    @Query(VIEW + " where u.id in :ids")
+    List<UserView> findAllViewsByIds(Collection<Long> ids);
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(Collection<String> emails);
+
+    @Query("select u.id from User u where u.id in :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    @Query("select u.id from User u where u.birthDate between :from and :to order by u.id")
+    List<Long> findIdsByBirthDateBetween(LocalDate from, LocalDate to, Limit limit);
+
+    @Modifying
+    @Query("delete from User u where u.id in :ids")
+    int deleteAllByIds(Collection<Long> ids);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select u from User u order by u.id")
+    Stream<User> streamAll();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.email from User u")
+    Stream<String> streamAllEmails();
 }
@@ -0,0 +1,20 @@
+package clear.solution.practisetest.repository;
+
+import java.time.LocalDate;
+
+public record UserView(
+        Long id,
+        String email,
+        String firstName,
+        String lastName,
+        LocalDate birthDate,
+        String city,
+        String country,
+        String postCode,
+        String state,
+        String streetName,
+        String streetNumber,
+        String phoneNumber,
+        Long version
+) {
+}
@@ -0,0 +1,22 @@
+package clear.solution.practisetest.service;
+
+import clear.solution.practisetest.dto.ImportReportDTO;
+
+import java.io.Reader;
+import java.util.Locale;
+
+public interface UserImportService {
+    ImportReportDTO importUsers(Reader reader, Format format, String importId);
+    ImportReportDTO importFile(String path, String importId);
+
+    enum Format {
+        CSV, NDJSON;
+
+        public static Format of(String fileName) {
+            var name = fileName != null ? fileName.toLowerCase(Locale.ROOT) : "";
+            if (name.endsWith(".csv")) return CSV;
+            if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) return NDJSON;
+            throw new IllegalArgumentException("File must be .csv, .ndjson or .jsonl");
+        }
+    }
+}
@@ -1,17 +1,34 @@
 package clear.solution.practisetest.service;
 
+import clear.solution.practisetest.dto.CursorPage;
+import clear.solution.practisetest.dto.TotalCount;
+import clear.solution.practisetest.dto.UserBatchResultDTO;
 import clear.solution.practisetest.dto.UserDTO;
-import org.springframework.data.domain.Page;
+import clear.solution.practisetest.dto.UserLookupDTO;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
-    Page<UserDTO> getAll(Pageable pageable);
-    Page<UserDTO> getAllByBirthDateBetween(LocalDate startDate, LocalDate endDate, Pageable pageable);
+    Slice<UserDTO> getAll(Pageable pageable);
+    Slice<UserDTO> getAllByBirthDateBetween(LocalDate startDate, LocalDate endDate, Pageable pageable);
+    CursorPage<UserDTO> scrollAll(String cursor, int size);
+    CursorPage<UserDTO> scrollAllByBirthDateBetween(LocalDate startDate, LocalDate endDate, String cursor, int size);
+    TotalCount countAll();
+    TotalCount countAllByBirthDateBetween(LocalDate startDate, LocalDate endDate);
     UserDTO getById(Long id);
+    UserLookupDTO getAllById(Collection<Long> ids);
     UserDTO create(UserDTO dto);
+    List<UserBatchResultDTO> createAll(List<UserDTO> dtos);
     UserDTO fullUpdate(Long id, UserDTO dto);
     UserDTO partialUpdate(Long id, UserDTO dto);
     void deleteById(Long id);
+    long deleteAllById(Collection<Long> ids);
+    long deleteAllByBirthDateBetween(LocalDate startDate, LocalDate endDate);
+    long partialUpdateAll(Collection<Long> ids, UserDTO dto);
+    void exportAll(Consumer<UserDTO> consumer);
 }
@@ -0,0 +1,10 @@
+package clear.solution.practisetest.service.impl;
+
+import java.util.List;
+
+record AuditEvent(long timestamp, Operation operation, Long id, String email, List<String> changed, long latencyNanos) {
+
+    enum Operation {
+        CREATE, FULL_UPDATE, PARTIAL_UPDATE, DELETE
+    }
+}
@@ -0,0 +1,248 @@
+package clear.solution.practisetest.service.impl;
+
+import clear.solution.practisetest.config.UserAuditProperties;
+import clear.solution.practisetest.model.User;
+import clear.solution.practisetest.service.impl.AuditEvent.Operation;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+
+@Slf4j
+@Component
+public class AuditLog implements SmartLifecycle {
+
+    static final String FILE_NAME = "audit.log";
+
+    private final UserAuditProperties auditProps;
+    private final AuditRingBuffer buffer;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final Counter queued;
+    private final Counter dropped;
+    private final Counter sampledOut;
+    private final Counter failed;
+    private volatile boolean running;
+    private Thread writerThread;
+    private JsonGenerator json;
+
+
+    public AuditLog(UserAuditProperties auditProps, MeterRegistry meterRegistry) {
+        this.auditProps = auditProps;
+        this.buffer = new AuditRingBuffer(auditProps.capacity());
+        this.queued = events(meterRegistry, "queued");
+        this.dropped = events(meterRegistry, "dropped");
+        this.sampledOut = events(meterRegistry, "sampled_out");
+        this.failed = events(meterRegistry, "failed");
+        Gauge.builder("user.audit.buffer.size", buffer, AuditRingBuffer::size)
+                .description("Audit events waiting for the writer")
+                .register(meterRegistry);
+    }
+
+    public void record(Operation operation, User user, List<String> changed, long startNanos) {
+        if (!auditProps.enabled()) return;
+        var id = user.getId();
+        var email = user.getEmail();
+        afterCommit(() -> offer(operation, id, email, changed, startNanos));
+    }
+
+    public void recordAll(Operation operation, Collection<User> users, long startNanos) {
+        if (!auditProps.enabled() || users.isEmpty()) return;
+        var ids = users.stream().map(User::getId).toList();
+        var emails = users.stream().map(User::getEmail).toList();
+        afterCommit(() -> {
+            for (int i = 0; i < ids.size(); i++) {
+                offer(operation, ids.get(i), emails.get(i), List.of(), startNanos);
+            }
+        });
+    }
+
+    public void recordIds(Operation operation, Collection<Long> ids, List<String> changed, long startNanos) {
+        if (!auditProps.enabled() || ids.isEmpty()) return;
+        var copy = List.copyOf(ids);
+        afterCommit(() -> copy.forEach(id -> offer(operation, id, null, changed, startNanos)));
+    }
+
+    public long dropped() {
+        return (long) dropped.count();
+    }
+
+    @Override
+    public void start() {
+        if (!auditProps.enabled()) return;
+        running = true;
+        writerThread = Thread.ofPlatform()
+                .name("user-audit-writer")
+                .daemon()
+                .start(this::drainLoop);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) return;
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(auditProps.flushInterval().toMillis() * 2 + 1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    static String mask(String email) {
+        if (email == null) return null;
+        var at = email.indexOf('@');
+        if (at <= 0) return "***";
+        return email.charAt(0) + "***" + email.substring(at);
+    }
+
+    private void offer(Operation operation, Long id, String email, List<String> changed, long startNanos) {
+        var rate = auditProps.sampleRate();
+        if (rate < 1.0 && ThreadLocalRandom.current().nextDouble() >= rate) {
+            sampledOut.increment();
+            return;
+        }
+        var now = System.nanoTime();
+        var event = new AuditEvent(System.currentTimeMillis(), operation, id, email, changed, now - startNanos);
+        if (buffer.offer(event)) {
+            queued.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    private void drainLoop() {
+        var batch = new ArrayList<AuditEvent>(auditProps.batchSize());
+        var parkNanos = auditProps.flushInterval().toNanos();
+        try {
+            while (running || buffer.size() > 0) {
+                batch.clear();
+                if (buffer.drain(batch, auditProps.batchSize()) == 0) {
+                    if (running) LockSupport.parkNanos(this, parkNanos);
+                    continue;
+                }
+                write(batch);
+            }
+        } finally {
+            close();
+        }
+    }
+
+    private void write(List<AuditEvent> batch) {
+        try {
+            if (json == null) open();
+            for (var event : batch) {
+                write(event);
+            }
+            json.flush();
+            if (Files.size(file()) >= auditProps.maxFileSize().toBytes()) {
+                rotate();
+            }
+        } catch (IOException e) {
+            failed.increment(batch.size());
+            log.warn("Failed to write {} audit events: {}", batch.size(), e.getMessage());
+            close();
+        }
+    }
+
+    private void write(AuditEvent event) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("timestamp", Instant.ofEpochMilli(event.timestamp()).toString());
+        json.writeStringField("operation", event.operation().name().toLowerCase(Locale.ROOT));
+        if (event.id() != null) {
+            json.writeNumberField("id", event.id());
+        }
+        json.writeStringField("subject", mask(event.email()));
+        json.writeArrayFieldStart("changed");
+        for (var field : event.changed()) {
+            json.writeString(field);
+        }
+        json.writeEndArray();
+        json.writeNumberField("latencyMicros", event.latencyNanos() / 1000);
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(auditProps.directory());
+        json = jsonFactory.createGenerator(Files.newBufferedWriter(file(), UTF_8, CREATE, APPEND));
+        json.setRootValueSeparator(null);
+    }
+
+    private Path file() {
+        return auditProps.directory().resolve(FILE_NAME);
+    }
+
+    private void rotate() throws IOException {
+        close();
+        var directory = auditProps.directory();
+        Files.deleteIfExists(rolled(directory, auditProps.maxFiles()));
+        for (int i = auditProps.maxFiles() - 1; i >= 1; i--) {
+            var source = rolled(directory, i);
+            if (Files.exists(source)) {
+                Files.move(source, rolled(directory, i + 1), REPLACE_EXISTING);
+            }
+        }
+        Files.move(file(), rolled(directory, 1), REPLACE_EXISTING);
+    }
+
+    private void close() {
+        if (json == null) return;
+        try {
+            json.close();
+        } catch (IOException e) {
+            log.warn("Failed to close audit log: {}", e.getMessage());
+        }
+        json = null;
+    }
+
+    private static Path rolled(Path directory, int index) {
+        return directory.resolve("audit." + index + ".log");
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static Counter events(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("user.audit.events")
+                .description("Audit events by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
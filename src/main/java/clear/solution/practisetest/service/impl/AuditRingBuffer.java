@@ -0,0 +1,54 @@
+package clear.solution.practisetest.service.impl;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+final class AuditRingBuffer {
+
+    private final AtomicReferenceArray<AuditEvent> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+
+    AuditRingBuffer(int capacity) {
+        var size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    boolean offer(AuditEvent event) {
+        long t;
+        do {
+            t = tail.get();
+            if (t - head >= slots.length()) return false;
+        } while (!tail.compareAndSet(t, t + 1));
+        slots.set((int) t & mask, event);
+        return true;
+    }
+
+    int drain(List<AuditEvent> batch, int max) {
+        var h = head;
+        var drained = 0;
+        while (drained < max) {
+            var index = (int) h & mask;
+            var event = slots.get(index);
+            if (event == null) break;
+            slots.lazySet(index, null);
+            batch.add(event);
+            h++;
+            drained++;
+        }
+        head = h;
+        return drained;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+}
@@ -0,0 +1,88 @@
+package clear.solution.practisetest.service.impl;
+
+import clear.solution.practisetest.dto.UserDTO;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+final class CursorCodec {
+
+    private static final String SEPARATOR = "|";
+
+    private CursorCodec() {
+    }
+
+    static KeysetScrollPosition decodeById(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        var parts = decode(cursor, 1);
+        try {
+            return ScrollPosition.forward(Map.of("id", Long.valueOf(parts[0])));
+        } catch (RuntimeException e) {
+            throw invalid();
+        }
+    }
+
+    static KeysetScrollPosition decodeByBirthDate(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        var parts = decode(cursor, 2);
+        try {
+            var keys = new LinkedHashMap<String, Object>();
+            keys.put("birthDate", LocalDate.parse(parts[0]));
+            keys.put("id", Long.valueOf(parts[1]));
+            return ScrollPosition.forward(keys);
+        } catch (RuntimeException e) {
+            throw invalid();
+        }
+    }
+
+    static String encodeNext(Window<?> window) {
+        if (!window.hasNext() || window.isEmpty()) {
+            return null;
+        }
+        var keys = ((KeysetScrollPosition) window.positionAt(window.size() - 1)).getKeys();
+        var raw = keys.containsKey("birthDate")
+                ? keys.get("birthDate") + SEPARATOR + keys.get("id")
+                : String.valueOf(keys.get("id"));
+        return encode(raw);
+    }
+
+    static String encodeById(UserDTO user) {
+        return encode(String.valueOf(user.id()));
+    }
+
+    static String encodeByBirthDate(UserDTO user) {
+        return encode(user.birthDate() + SEPARATOR + user.id());
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decode(String cursor, int expectedParts) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+        var parts = raw.split("\\" + SEPARATOR, -1);
+        if (parts.length != expectedParts) {
+            throw invalid();
+        }
+        return parts;
+    }
+
+    private static IllegalArgumentException invalid() {
+        return new IllegalArgumentException("Cursor is not valid");
+    }
+}
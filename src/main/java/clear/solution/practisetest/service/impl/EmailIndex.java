@@ -0,0 +1,128 @@
+package clear.solution.practisetest.service.impl;
+
+import clear.solution.practisetest.config.EmailIndexProperties;
+import clear.solution.practisetest.repository.UserRepository;
+import clear.solution.practisetest.sharding.ShardContext;
+import clear.solution.practisetest.sharding.ShardRoutingDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Slf4j
+@Component
+public class EmailIndex {
+
+    private final UserRepository userRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRoutingDataSource shardRouting;
+    private final boolean enabled;
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private volatile boolean warm;
+
+
+    public EmailIndex(UserRepository userRepo,
+                      TransactionTemplate transactionTemplate,
+                      ObjectProvider<ShardRoutingDataSource> shardRouting,
+                      EmailIndexProperties indexProps) {
+        this.userRepo = userRepo;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouting = shardRouting.getIfAvailable();
+        this.enabled = indexProps.enabled();
+
+        var n = (double) indexProps.expectedInsertions();
+        var p = indexProps.falsePositiveRate();
+        var words = (int) Math.min(Integer.MAX_VALUE - 8,
+                Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)) / Long.SIZE));
+        this.bits = new AtomicLongArray(enabled ? Math.max(words, 1) : 1);
+        this.bitCount = (long) bits.length() * Long.SIZE;
+        this.hashCount = Math.max(1, (int) Math.round(bitCount / n * Math.log(2)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) return;
+        var start = System.nanoTime();
+        var count = new AtomicLong();
+        if (shardRouting == null) {
+            load(count);
+        } else {
+            for (int shard = 0; shard < shardRouting.shards().size(); shard++) {
+                ShardContext.on(shard, () -> {
+                    load(count);
+                    return null;
+                });
+            }
+        }
+        warm = true;
+        log.info("Email index warmed with {} emails in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean mightContain(String email) {
+        if (email == null) return false;
+        if (!enabled || !warm) return true;
+
+        var hash = hash(email);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            var bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void add(String email) {
+        if (email == null || !enabled) return;
+
+        var hash = hash(email);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            var bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+            var index = (int) (bit >>> 6);
+            var mask = 1L << bit;
+            long word;
+            while (((word = bits.get(index)) & mask) == 0
+                    && !bits.compareAndSet(index, word, word | mask)) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private void load(AtomicLong count) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (var emails = userRepo.streamAllEmails()) {
+                emails.forEach(email -> {
+                    add(email);
+                    count.incrementAndGet();
+                });
+            }
+        });
+    }
+
+    private static long hash(String email) {
+        var normalized = email.strip().toLowerCase(Locale.ROOT);
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < normalized.length(); i++) {
+            h ^= normalized.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
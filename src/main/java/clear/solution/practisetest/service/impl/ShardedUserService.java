@@ -0,0 +1,352 @@
+package clear.solution.practisetest.service.impl;
+
+import clear.solution.practisetest.dto.CursorPage;
+import clear.solution.practisetest.dto.TotalCount;
+import clear.solution.practisetest.dto.UserBatchResultDTO;
+import clear.solution.practisetest.dto.UserDTO;
+import clear.solution.practisetest.dto.UserLookupDTO;
+import clear.solution.practisetest.exception.ResourceInConflictException;
+import clear.solution.practisetest.repository.UserRepository;
+import clear.solution.practisetest.service.UserService;
+import clear.solution.practisetest.sharding.EmailClaims;
+import clear.solution.practisetest.sharding.ShardContext;
+import clear.solution.practisetest.sharding.ShardRoutingDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.TransactionException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+@Slf4j
+public class ShardedUserService implements UserService {
+
+    private static final Sort BY_ID = Sort.by("id");
+    private static final Map<String, Comparator<UserDTO>> PROPERTIES = Map.of(
+            "id", Comparator.comparing(UserDTO::id, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "email", Comparator.comparing(UserDTO::email, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "firstName", Comparator.comparing(UserDTO::firstName, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "lastName", Comparator.comparing(UserDTO::lastName, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "birthDate", Comparator.comparing(UserDTO::birthDate, Comparator.nullsFirst(Comparator.naturalOrder())),
+            "phoneNumber", Comparator.comparing(UserDTO::phoneNumber, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+    private final UserService delegate;
+    private final UserRepository userRepo;
+    private final ShardRoutingDataSource dataSource;
+    private final EmailClaims emailClaims;
+    private final List<Integer> allShards;
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+
+    public ShardedUserService(UserService delegate,
+                              UserRepository userRepo,
+                              ShardRoutingDataSource dataSource,
+                              EmailClaims emailClaims) {
+        this.delegate = delegate;
+        this.userRepo = userRepo;
+        this.dataSource = dataSource;
+        this.emailClaims = emailClaims;
+        this.allShards = IntStream.range(0, dataSource.shards().size()).boxed().toList();
+    }
+
+    @Override
+    public Slice<UserDTO> getAll(Pageable pageable) {
+        return gather(pageable, delegate::getAll);
+    }
+
+    @Override
+    public Slice<UserDTO> getAllByBirthDateBetween(LocalDate from, LocalDate to, Pageable pageable) {
+        checkRange(from, to);
+        return gather(pageable, window -> delegate.getAllByBirthDateBetween(from, to, window));
+    }
+
+    @Override
+    public CursorPage<UserDTO> scrollAll(String cursor, int size) {
+        CursorCodec.decodeById(cursor);
+        var pages = scatter(allShards, shard -> delegate.scrollAll(cursor, size));
+        return merge(pages, size, PROPERTIES.get("id"), CursorCodec::encodeById);
+    }
+
+    @Override
+    public CursorPage<UserDTO> scrollAllByBirthDateBetween(LocalDate from, LocalDate to, String cursor, int size) {
+        checkRange(from, to);
+        CursorCodec.decodeByBirthDate(cursor);
+        var pages = scatter(allShards, shard -> delegate.scrollAllByBirthDateBetween(from, to, cursor, size));
+        return merge(pages, size, PROPERTIES.get("birthDate").thenComparing(PROPERTIES.get("id")),
+                CursorCodec::encodeByBirthDate);
+    }
+
+    @Override
+    public TotalCount countAll() {
+        return TotalCount.exact(sum(scatter(allShards, shard -> userRepo.count())));
+    }
+
+    @Override
+    public TotalCount countAllByBirthDateBetween(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return TotalCount.exact(sum(scatter(allShards, shard -> userRepo.countByBirthDateBetween(from, to))));
+    }
+
+    @Override
+    public UserDTO getById(Long id) {
+        return ShardContext.on(dataSource.shardOf(id), () -> delegate.getById(id));
+    }
+
+    @Override
+    public UserLookupDTO getAllById(Collection<Long> ids) {
+        var requested = new LinkedHashSet<>(ids);
+        var groups = groupByShard(requested);
+        var found = new HashMap<Long, UserDTO>();
+        scatter(groups.keySet(), shard -> delegate.getAllById(groups.get(shard)))
+                .forEach(lookup -> lookup.users().forEach(user -> found.put(user.id(), user)));
+
+        var users = new ArrayList<UserDTO>(found.size());
+        var missing = new ArrayList<Long>();
+        for (var id : requested) {
+            var user = found.get(id);
+            if (user != null) {
+                users.add(user);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new UserLookupDTO(users, missing);
+    }
+
+    @Override
+    public UserDTO create(UserDTO dto) {
+        return claiming(dto.email(), () -> {
+            if (isEmailTaken(dto.email(), null)) {
+                throw new ResourceInConflictException("User with email %s already exists".formatted(dto.email()));
+            }
+            return ShardContext.on(nextShard(), () -> delegate.create(dto));
+        });
+    }
+
+    @Override
+    public List<UserBatchResultDTO> createAll(List<UserDTO> dtos) {
+        var emails = dtos.stream().map(UserDTO::email).distinct().toList();
+        return emailClaims.hold(emails, () -> createClaimed(dtos, emails));
+    }
+
+    @Override
+    public UserDTO fullUpdate(Long id, UserDTO dto) {
+        return claiming(dto.email(), () -> {
+            checkEmail(id, dto);
+            return ShardContext.on(dataSource.shardOf(id), () -> delegate.fullUpdate(id, dto));
+        });
+    }
+
+    @Override
+    public UserDTO partialUpdate(Long id, UserDTO dto) {
+        return claiming(dto.email(), () -> {
+            checkEmail(id, dto);
+            return ShardContext.on(dataSource.shardOf(id), () -> delegate.partialUpdate(id, dto));
+        });
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        ShardContext.on(dataSource.shardOf(id), () -> {
+            delegate.deleteById(id);
+            return null;
+        });
+    }
+
+    @Override
+    public long deleteAllById(Collection<Long> ids) {
+        var groups = groupByShard(ids);
+        return sum(scatter(groups.keySet(), shard -> delegate.deleteAllById(groups.get(shard))));
+    }
+
+    @Override
+    public long deleteAllByBirthDateBetween(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return sum(scatter(allShards, shard -> delegate.deleteAllByBirthDateBetween(from, to)));
+    }
+
+    @Override
+    public long partialUpdateAll(Collection<Long> ids, UserDTO dto) {
+        var groups = groupByShard(ids);
+        return sum(scatter(groups.keySet(), shard -> delegate.partialUpdateAll(groups.get(shard), dto)));
+    }
+
+    @Override
+    public void exportAll(Consumer<UserDTO> consumer) {
+        for (var shard : allShards) {
+            ShardContext.on(shard, () -> {
+                delegate.exportAll(consumer);
+                return null;
+            });
+        }
+    }
+
+    private List<UserBatchResultDTO> createClaimed(List<UserDTO> dtos, List<String> emails) {
+        var taken = new HashSet<String>();
+        scatter(allShards, shard -> userRepo.findExistingEmails(emails)).forEach(taken::addAll);
+
+        var results = new UserBatchResultDTO[dtos.size()];
+        var groups = new TreeMap<Integer, List<Integer>>();
+        for (int i = 0; i < dtos.size(); i++) {
+            var dto = dtos.get(i);
+            if (!taken.add(dto.email())) {
+                results[i] = UserBatchResultDTO.conflict(i,
+                        "User with email %s already exists".formatted(dto.email()));
+                continue;
+            }
+            groups.computeIfAbsent(nextShard(), shard -> new ArrayList<>()).add(i);
+        }
+
+        scatter(groups.keySet(), shard -> {
+            var indexes = groups.get(shard);
+            try {
+                var created = delegate.createAll(indexes.stream().map(dtos::get).toList());
+                created.forEach(result -> {
+                    int index = indexes.get(result.index());
+                    results[index] = new UserBatchResultDTO(index, result.status(), result.user(), result.error());
+                });
+            } catch (DataAccessException | TransactionException e) {
+                log.warn("Shard {} failed to store {} users: {}", shard, indexes.size(), e.getMessage());
+                indexes.forEach(index -> results[index] = UserBatchResultDTO.failed(index,
+                        "User could not be stored, retry it"));
+            }
+            return indexes.size();
+        });
+        log.debug("Created users across {} shards", groups.size());
+        return Arrays.asList(results);
+    }
+
+    private Slice<UserDTO> gather(Pageable pageable, Function<Pageable, Slice<UserDTO>> query) {
+        var sort = pageable.getSort().getOrderFor("id") == null ? pageable.getSort().and(BY_ID) : pageable.getSort();
+        var end = pageable.getOffset() + pageable.getPageSize();
+        var window = PageRequest.of(0, Math.toIntExact(end), sort);
+        var slices = scatter(allShards, shard -> query.apply(window));
+
+        var merged = slices.stream()
+                .flatMap(slice -> slice.getContent().stream())
+                .sorted(comparator(sort))
+                .toList();
+        var content = merged.stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .toList();
+        var hasNext = merged.size() > end || slices.stream().anyMatch(Slice::hasNext);
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    private static CursorPage<UserDTO> merge(List<CursorPage<UserDTO>> pages, int size,
+                                             Comparator<UserDTO> order, Function<UserDTO, String> cursor) {
+        var merged = pages.stream()
+                .flatMap(page -> page.content().stream())
+                .sorted(order)
+                .toList();
+        var content = merged.subList(0, Math.min(size, merged.size()));
+        var hasNext = merged.size() > size || pages.stream().anyMatch(CursorPage::hasNext);
+        return new CursorPage<>(content, hasNext && !content.isEmpty() ? cursor.apply(content.getLast()) : null);
+    }
+
+    private static Comparator<UserDTO> comparator(Sort sort) {
+        Comparator<UserDTO> comparator = (a, b) -> 0;
+        for (var order : sort) {
+            var property = PROPERTIES.get(order.getProperty());
+            if (property == null) {
+                throw new IllegalArgumentException("Cannot sort users by " + order.getProperty());
+            }
+            comparator = comparator.thenComparing(order.isAscending() ? property : property.reversed());
+        }
+        return comparator;
+    }
+
+    private <T> List<T> scatter(Collection<Integer> shards, IntFunction<T> call) {
+        if (shards.size() == 1) {
+            int shard = shards.iterator().next();
+            return List.of(ShardContext.on(shard, () -> call.apply(shard)));
+        }
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var futures = new ArrayList<Future<T>>(shards.size());
+            for (int shard : shards) {
+                futures.add(executor.submit(() -> ShardContext.on(shard, () -> call.apply(shard))));
+            }
+            var results = new ArrayList<T>(futures.size());
+            for (var future : futures) {
+                results.add(await(future));
+            }
+            return results;
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for shards", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            if (e.getCause() instanceof Error error) throw error;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private int nextShard() {
+        return Math.floorMod(nextShard.getAndIncrement(), allShards.size());
+    }
+
+    private Map<Integer, List<Long>> groupByShard(Collection<Long> ids) {
+        var groups = new TreeMap<Integer, List<Long>>();
+        for (var id : new LinkedHashSet<>(ids)) {
+            groups.computeIfAbsent(dataSource.shardOf(id), shard -> new ArrayList<>()).add(id);
+        }
+        return groups;
+    }
+
+    private <T> T claiming(String email, Supplier<T> write) {
+        return email == null ? write.get() : emailClaims.hold(List.of(email), write);
+    }
+
+    private boolean isEmailTaken(String email, Long id) {
+        return scatter(allShards, shard -> id == null
+                ? userRepo.existsByEmail(email)
+                : userRepo.existsByEmailAndIdNot(email, id))
+                .contains(true);
+    }
+
+    private void checkEmail(Long id, UserDTO dto) {
+        if (dto.email() != null && isEmailTaken(dto.email(), id)) {
+            throw new ResourceInConflictException("User with email %s already registered".formatted(dto.email()));
+        }
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("From date must be before to date");
+        }
+    }
+
+    private static long sum(List<? extends Number> values) {
+        return values.stream().mapToLong(Number::longValue).sum();
+    }
+}
@@ -0,0 +1,87 @@
+package clear.solution.practisetest.service.impl;
+
+import clear.solution.practisetest.replica.ReadYourWrites;
+import clear.solution.practisetest.sharding.ShardContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(prefix = "user.single-flight", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SingleFlightAspect {
+
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> leaders = new ConcurrentHashMap<>();
+    private final Map<String, Counter> followers = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+
+    public SingleFlightAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("user.single.flight.in.flight", inFlight, Map::size)
+                .description("Distinct calls currently being loaded")
+                .register(meterRegistry);
+    }
+
+    @Around("@annotation(clear.solution.practisetest.service.impl.SingleFlight)")
+    Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        var method = joinPoint.getSignature().toShortString();
+        var key = new Key(method, ShardContext.current(), ReadYourWrites.sticky(), Arrays.asList(joinPoint.getArgs()));
+        var call = new CompletableFuture<>();
+        var existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            counter(followers, method, "coalesced").increment();
+            log.debug("Joined in-flight call {}", key);
+            return await(existing);
+        }
+
+        counter(leaders, method, "leader").increment();
+        try {
+            var result = joinPoint.proceed();
+            call.complete(result);
+            return result;
+        } catch (Throwable e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> call) throws Throwable {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            throw e.getCause();
+        }
+    }
+
+    private Counter counter(Map<String, Counter> counters, String method, String role) {
+        return counters.computeIfAbsent(method, m -> Counter.builder("user.single.flight.calls")
+                .description("Calls that loaded a result or joined an identical in-flight call")
+                .tag("method", m)
+                .tag("role", role)
+                .register(meterRegistry));
+    }
+
+    private record Key(String method, Integer shard, boolean primary, List<Object> args) {
+    }
+}
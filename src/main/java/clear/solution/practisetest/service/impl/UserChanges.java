@@ -0,0 +1,39 @@
+package clear.solution.practisetest.service.impl;
+
+import clear.solution.practisetest.model.Address;
+import clear.solution.practisetest.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+final class UserChanges {
+
+    private static final String[] FIELDS = {
+            "email", "firstName", "lastName", "birthDate", "phoneNumber",
+            "address.city", "address.country", "address.postCode",
+            "address.state", "address.streetName", "address.streetNumber"
+    };
+
+    private UserChanges() {
+    }
+
+    static Object[] snapshot(User user) {
+        var address = user.getAddress() == null ? new Address() : user.getAddress();
+        return new Object[]{
+                user.getEmail(), user.getFirstName(), user.getLastName(), user.getBirthDate(), user.getPhoneNumber(),
+                address.getCity(), address.getCountry(), address.getPostCode(),
+                address.getState(), address.getStreetName(), address.getStreetNumber()
+        };
+    }
+
+    static List<String> diff(Object[] before, Object[] after) {
+        var changed = new ArrayList<String>(2);
+        for (int i = 0; i < FIELDS.length; i++) {
+            if (!Objects.equals(before[i], after[i])) {
+                changed.add(FIELDS[i]);
+            }
+        }
+        return changed;
+    }
+}
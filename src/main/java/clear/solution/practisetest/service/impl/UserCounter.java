@@ -0,0 +1,118 @@
+package clear.solution.practisetest.service.impl;
+
+import clear.solution.practisetest.config.UserCountProperties;
+import clear.solution.practisetest.dto.TotalCount;
+import clear.solution.practisetest.dto.TotalCount.Strategy;
+import clear.solution.practisetest.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+@Slf4j
+@Component
+public class UserCounter {
+
+    private static final String ALL = "all";
+    private static final String ESTIMATE_QUERY = """
+            select row_count_estimate from information_schema.tables
+            where table_schema = current_schema and lower(table_name) = 'users'""";
+
+    private final UserRepository userRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final Strategy strategy;
+    private final long ttlNanos;
+    private final Cache<String, Long> counts;
+    private final AtomicLong counter = new AtomicLong();
+    private final ReentrantLock seedLock = new ReentrantLock();
+    private volatile long counterSeededAt;
+    private volatile boolean counterSeeded;
+
+
+    public UserCounter(UserRepository userRepo, JdbcTemplate jdbcTemplate, UserCountProperties countProps) {
+        this.userRepo = userRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.strategy = countProps.strategy();
+        this.ttlNanos = countProps.ttl().toNanos();
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(1000)
+                .expireAfterWrite(countProps.ttl())
+                .build();
+    }
+
+    public TotalCount countAll() {
+        return switch (strategy) {
+            case EXACT -> TotalCount.exact(userRepo.count());
+            case CACHED -> cached(ALL, userRepo::count);
+            case COUNTER -> new TotalCount(counter(), Strategy.COUNTER);
+            case ESTIMATED -> estimated();
+        };
+    }
+
+    public TotalCount countByBirthDateBetween(LocalDate from, LocalDate to) {
+        if (strategy == Strategy.EXACT) {
+            return TotalCount.exact(userRepo.countByBirthDateBetween(from, to));
+        }
+        return cached(from + "|" + to, () -> userRepo.countByBirthDateBetween(from, to));
+    }
+
+    public void added(long delta) {
+        if (strategy != Strategy.COUNTER || delta == 0) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            counter.addAndGet(delta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                counter.addAndGet(delta);
+            }
+        });
+    }
+
+    private TotalCount cached(String key, LongSupplier query) {
+        var count = counts.getIfPresent(key);
+        if (count == null) {
+            count = query.getAsLong();
+            counts.put(key, count);
+        }
+        return new TotalCount(count, Strategy.CACHED);
+    }
+
+    private long counter() {
+        if (!counterSeeded || System.nanoTime() - counterSeededAt > ttlNanos) {
+            seedLock.lock();
+            try {
+                if (!counterSeeded || System.nanoTime() - counterSeededAt > ttlNanos) {
+                    counter.set(userRepo.count());
+                    counterSeededAt = System.nanoTime();
+                    counterSeeded = true;
+                }
+            } finally {
+                seedLock.unlock();
+            }
+        }
+        return Math.max(counter.get(), 0);
+    }
+
+    private TotalCount estimated() {
+        try {
+            var estimate = jdbcTemplate.queryForObject(ESTIMATE_QUERY, Long.class);
+            if (estimate != null) {
+                return new TotalCount(estimate, Strategy.ESTIMATED);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Row count estimate is not available: {}", e.getMessage());
+        }
+        return cached(ALL, userRepo::count);
+    }
+}
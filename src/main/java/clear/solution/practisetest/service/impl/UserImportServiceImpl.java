@@ -0,0 +1,266 @@
+package clear.solution.practisetest.service.impl;
+
+import clear.solution.practisetest.config.UserImportProperties;
+import clear.solution.practisetest.dto.ImportReportDTO;
+import clear.solution.practisetest.dto.RejectedRowDTO;
+import clear.solution.practisetest.dto.UserBatchResultDTO;
+import clear.solution.practisetest.dto.UserDTO;
+import clear.solution.practisetest.dto.mapper.UserCsvMapper;
+import clear.solution.practisetest.dto.validation.Groups.Create;
+import clear.solution.practisetest.dto.validation.UserDTOValidator;
+import clear.solution.practisetest.exception.ResourceNotFoundException;
+import clear.solution.practisetest.service.UserImportService;
+import clear.solution.practisetest.service.UserService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final Pattern IMPORT_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final UserService userService;
+    private final UserCsvMapper csvMapper;
+    private final ObjectMapper objectMapper;
+    private final UserDTOValidator validator;
+    private final UserImportProperties importProps;
+
+
+    @Override
+    public ImportReportDTO importUsers(Reader reader, Format format, String importId) {
+        var checkpointFile = checkpointFile(importId);
+        var job = new ImportJob(importId, checkpointFile, readCheckpoint(checkpointFile));
+        if (job.checkpoint > 0) {
+            log.info("Resuming import {} after row {}", importId, job.checkpoint);
+        }
+
+        try (var lines = new BufferedReader(reader)) {
+            if (format == Format.CSV) {
+                readCsv(lines, job);
+            } else {
+                readNdjson(lines, job);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        job.commit();
+
+        if (checkpointFile != null) {
+            delete(checkpointFile);
+        }
+        log.info("Import {} finished: {} rows processed, {} created, {} rejected",
+                importId, job.processed, job.created, job.rejected);
+        return job.report();
+    }
+
+    @Override
+    public ImportReportDTO importFile(String path, String importId) {
+        if (importProps.directory() == null) {
+            throw new IllegalArgumentException("Local file import is disabled");
+        }
+        var directory = importProps.directory().toAbsolutePath().normalize();
+        var file = directory.resolve(path).normalize();
+        if (!file.startsWith(directory)) {
+            throw new IllegalArgumentException("Path must be inside the import directory");
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new ResourceNotFoundException("File %s not found".formatted(path));
+        }
+
+        try {
+            return importUsers(Files.newBufferedReader(file, UTF_8), Format.of(file.toString()), importId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void readCsv(BufferedReader lines, ImportJob job) throws IOException {
+        var header = lines.readLine();
+        if (header == null) return;
+        if (!UserCsvMapper.HEADER.equals(header.strip())) {
+            throw new IllegalArgumentException("CSV header must be " + UserCsvMapper.HEADER);
+        }
+
+        var record = new StringBuilder();
+        String line;
+        while ((line = lines.readLine()) != null) {
+            record.append(line);
+            if (!csvMapper.isComplete(record)) {
+                record.append('\n');
+                continue;
+            }
+            if (!record.toString().isBlank() && job.nextRow()) {
+                var text = record.toString();
+                job.accept(() -> csvMapper.fromCsv(text));
+            }
+            record.setLength(0);
+        }
+        if (!record.isEmpty() && job.nextRow()) {
+            var text = record.toString();
+            job.accept(() -> csvMapper.fromCsv(text));
+        }
+    }
+
+    private void readNdjson(BufferedReader lines, ImportJob job) throws IOException {
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (line.isBlank() || !job.nextRow()) continue;
+            var text = line;
+            job.accept(() -> {
+                try {
+                    var dto = objectMapper.readValue(text, UserDTO.class);
+                    if (dto == null) {
+                        throw new IllegalArgumentException("Row must be a JSON object");
+                    }
+                    return dto;
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException("Row is not valid JSON");
+                }
+            });
+        }
+    }
+
+    private Path checkpointFile(String importId) {
+        if (importId == null) return null;
+        if (!IMPORT_ID.matcher(importId).matches()) {
+            throw new IllegalArgumentException("Import id must be 1 to 64 letters, digits, '-' or '_'");
+        }
+        return importProps.checkpointDirectory().resolve(importId + ".checkpoint");
+    }
+
+    private static long readCheckpoint(Path file) {
+        if (file == null || !Files.exists(file)) return 0;
+        try {
+            return Long.parseLong(Files.readString(file).strip());
+        } catch (IOException | NumberFormatException e) {
+            throw new IllegalStateException("Checkpoint %s is not readable".formatted(file), e);
+        }
+    }
+
+    private static void writeCheckpoint(Path file, long row) {
+        try {
+            Files.createDirectories(file.getParent());
+            var tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(tmp, Long.toString(row));
+            Files.move(tmp, file, REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private final class ImportJob {
+
+        private final String importId;
+        private final Path checkpointFile;
+        private final List<UserDTO> chunk = new ArrayList<>();
+        private final List<Long> chunkRows = new ArrayList<>();
+        private final List<RejectedRowDTO> rejections = new ArrayList<>();
+        private long checkpoint;
+        private long row;
+        private long processed;
+        private long created;
+        private long rejected;
+
+        private ImportJob(String importId, Path checkpointFile, long checkpoint) {
+            this.importId = importId;
+            this.checkpointFile = checkpointFile;
+            this.checkpoint = checkpoint;
+        }
+
+        private boolean nextRow() {
+            return ++row > checkpoint;
+        }
+
+        private void accept(Supplier<UserDTO> parser) {
+            processed++;
+            UserDTO dto;
+            try {
+                dto = parser.get();
+            } catch (IllegalArgumentException e) {
+                reject(List.of(e.getMessage()));
+                return;
+            }
+
+            var errors = new TreeSet<String>();
+            validator.validate(dto, Create.class,
+                    (field, code, message, value) -> errors.add(field + ": " + message));
+            if (!errors.isEmpty()) {
+                reject(errors);
+                return;
+            }
+
+            chunk.add(dto);
+            chunkRows.add(row);
+            if (chunk.size() >= importProps.chunkSize()) {
+                commit();
+            }
+        }
+
+        private void reject(Collection<String> errors) {
+            reject(row, errors);
+        }
+
+        private void reject(long row, Collection<String> errors) {
+            rejected++;
+            if (rejections.size() < importProps.maxReportedRejections()) {
+                rejections.add(new RejectedRowDTO(row, errors));
+            }
+        }
+
+        private void commit() {
+            if (!chunk.isEmpty()) {
+                var results = userService.createAll(List.copyOf(chunk));
+                for (var result : results) {
+                    if (result.status() == UserBatchResultDTO.Status.CREATED) {
+                        created++;
+                    } else {
+                        reject(chunkRows.get(result.index()), List.of(result.error()));
+                    }
+                }
+                chunk.clear();
+                chunkRows.clear();
+            }
+
+            checkpoint = row;
+            if (checkpointFile != null) {
+                writeCheckpoint(checkpointFile, checkpoint);
+            }
+            log.info("Import {}: {} rows processed, {} created, {} rejected",
+                    importId, processed, created, rejected);
+        }
+
+        private ImportReportDTO report() {
+            return new ImportReportDTO(processed, created, rejected, checkpoint, List.copyOf(rejections));
+        }
+    }
+}
@@ -1,114 +1,459 @@
 package clear.solution.practisetest.service.impl;
 
+import clear.solution.practisetest.config.GuardedCaffeineCache;
+import clear.solution.practisetest.config.UserBulkProperties;
 import clear.solution.practisetest.config.UserValidationProperties;
+import clear.solution.practisetest.dto.CursorPage;
+import clear.solution.practisetest.dto.TotalCount;
+import clear.solution.practisetest.dto.UserBatchResultDTO;
 import clear.solution.practisetest.dto.UserDTO;
+import clear.solution.practisetest.dto.UserLookupDTO;
 import clear.solution.practisetest.dto.mapper.UserMapper;
 import clear.solution.practisetest.exception.ResourceInConflictException;
+import clear.solution.practisetest.exception.PreconditionFailedException;
 import clear.solution.practisetest.exception.ResourceNotFoundException;
+import clear.solution.practisetest.model.User;
+import clear.solution.practisetest.replica.ReplicaReads;
 import clear.solution.practisetest.repository.UserRepository;
 import clear.solution.practisetest.service.UserService;
+import clear.solution.practisetest.service.impl.AuditEvent.Operation;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static clear.solution.practisetest.config.CacheConfig.USERS_CACHE;
 
 @Service
 @Slf4j
+@Timed("user.service")
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
+    private static final String EMAIL_CONSTRAINT = "users_email_uk";
+
     private final UserRepository userRepo;
     private final UserMapper mapper;
     private final UserValidationProperties userProps;
+    private final EntityManager entityManager;
+    private final EmailIndex emailIndex;
+    private final UserCounter userCounter;
+    private final AuditLog auditLog;
+    private final UserBulkProperties bulkProps;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
 
 
     @Override
     @Transactional(readOnly = true)
-    public Page<UserDTO> getAll(Pageable pageable) {
-        return userRepo.findAll(pageable).map(mapper::toDTO);
+    public Slice<UserDTO> getAll(Pageable pageable) {
+        return userRepo.findAllViews(pageable).map(mapper::toDTO);
     }
 
     @Override
+    @SingleFlight
     @Transactional(readOnly = true)
-    public Page<UserDTO> getAllByBirthDateBetween(LocalDate from, LocalDate to, Pageable pageable) {
-        if (!from.isBefore(to)) {
-            throw new IllegalArgumentException("From date must be before to date");
-        }
-        return userRepo.findAllByBirthDateBetween(from, to, pageable).map(mapper::toDTO);
+    public Slice<UserDTO> getAllByBirthDateBetween(LocalDate from, LocalDate to, Pageable pageable) {
+        checkRange(from, to);
+        return userRepo.findAllViewsByBirthDateBetween(from, to, pageable).map(mapper::toDTO);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<UserDTO> scrollAll(String cursor, int size) {
+        var window = userRepo.findAllByOrderByIdAsc(CursorCodec.decodeById(cursor), Limit.of(size));
+        return toCursorPage(window);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<UserDTO> scrollAllByBirthDateBetween(LocalDate from, LocalDate to, String cursor, int size) {
+        checkRange(from, to);
+        var window = userRepo.findAllByBirthDateBetweenOrderByBirthDateAscIdAsc(
+                from, to, CursorCodec.decodeByBirthDate(cursor), Limit.of(size));
+        return toCursorPage(window);
     }
 
     @Override
     @Transactional(readOnly = true)
+    public TotalCount countAll() {
+        return userCounter.countAll();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TotalCount countAllByBirthDateBetween(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return userCounter.countByBirthDateBetween(from, to);
+    }
+
+    @Override
+    @SingleFlight
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = USERS_CACHE, key = "#id", sync = true)
     public UserDTO getById(Long id) {
-        return userRepo.findById(id)
+        return userRepo.findViewById(id)
                 .map(mapper::toDTO)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "User with id %d not found".formatted(id)
                 ));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public UserLookupDTO getAllById(Collection<Long> ids) {
+        var requested = new LinkedHashSet<>(ids);
+        var cache = cacheManager.getCache(USERS_CACHE);
+        var found = new HashMap<Long, UserDTO>();
+        var misses = new ArrayList<Long>();
+        for (var id : requested) {
+            var cached = cache == null ? null : cache.get(id, UserDTO.class);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                misses.add(id);
+            }
+        }
+
+        var guarded = cache instanceof GuardedCaffeineCache users ? users : null;
+        for (var chunk : chunks(misses)) {
+            var generations = new HashMap<Long, Long>();
+            if (guarded != null) {
+                chunk.forEach(id -> generations.put(id, guarded.generation(id)));
+            }
+            var replicaReads = ReplicaReads.mark();
+            var views = userRepo.findAllViewsByIds(chunk);
+            var cacheable = guarded != null && !ReplicaReads.servedSince(replicaReads);
+            for (var view : views) {
+                var user = mapper.toDTO(view);
+                found.put(user.id(), user);
+                if (cacheable) {
+                    guarded.putIfUnchanged(user.id(), user, generations.get(user.id()));
+                }
+            }
+        }
+
+        var users = new ArrayList<UserDTO>(found.size());
+        var missing = new ArrayList<Long>();
+        for (var id : requested) {
+            var user = found.get(id);
+            if (user != null) {
+                users.add(user);
+            } else {
+                missing.add(id);
+            }
+        }
+        log.debug("Looked up {} users: {} from cache, {} missing",
+                requested.size(), requested.size() - misses.size(), missing.size());
+        return new UserLookupDTO(users, missing);
+    }
+
     @Override
     @Transactional
+    @CachePut(cacheNames = USERS_CACHE, key = "#result.id()")
     public UserDTO create(UserDTO dto) {
-        if (userRepo.existsByEmail(dto.email())) {
+        var start = System.nanoTime();
+        if (isEmailTaken(dto.email())) {
             throw new ResourceInConflictException(
                     "User with email %s already exists".formatted(dto.email())
             );
         }
 
-        var years = ChronoUnit.YEARS.between(dto.birthDate(), LocalDate.now());
-        if (years < userProps.age()) {
+        if (isUnderage(dto)) {
             throw new IllegalArgumentException("User must be over 18 years of age");
         }
 
-        var user = mapper.toEntity(dto);
-        log.info("Saving user to db: {}", user);
-        return mapper.toDTO(userRepo.save(user));
+        var saved = userRepo.save(mapper.toEntity(dto));
+        log.debug("Saved user with id {}", saved.getId());
+        emailIndex.add(saved.getEmail());
+        userCounter.added(1);
+        auditLog.record(Operation.CREATE, saved, List.of(), start);
+        return mapper.toDTO(saved);
     }
 
     @Override
     @Transactional
-    public UserDTO fullUpdate(Long id, UserDTO dto) {
-        var user = userRepo.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "User with id %d not found".formatted(id))
-                );
-        if (userRepo.existsByEmail(dto.email())) {
-            throw new ResourceInConflictException(
-                    "User with email %s already registered".formatted(dto.email()));
+    public List<UserBatchResultDTO> createAll(List<UserDTO> dtos) {
+        var start = System.nanoTime();
+        var emails = dtos.stream()
+                .map(UserDTO::email)
+                .filter(emailIndex::mightContain)
+                .distinct()
+                .toList();
+        var taken = emails.isEmpty()
+                ? new HashSet<String>()
+                : new HashSet<>(userRepo.findExistingEmails(emails));
+
+        var results = new UserBatchResultDTO[dtos.size()];
+        var users = new ArrayList<User>(dtos.size());
+        var indexes = new ArrayList<Integer>(dtos.size());
+        for (int i = 0; i < dtos.size(); i++) {
+            var dto = dtos.get(i);
+            if (isUnderage(dto)) {
+                results[i] = UserBatchResultDTO.rejected(i, "User must be over 18 years of age");
+            } else if (!taken.add(dto.email())) {
+                results[i] = UserBatchResultDTO.conflict(i,
+                        "User with email %s already exists".formatted(dto.email()));
+            } else {
+                users.add(mapper.toEntity(dto));
+                indexes.add(i);
+            }
+        }
+
+        log.debug("Saving {} of {} users to db", users.size(), dtos.size());
+        var saved = userRepo.saveAll(users);
+        saved.forEach(user -> emailIndex.add(user.getEmail()));
+        userCounter.added(saved.size());
+        auditLog.recordAll(Operation.CREATE, saved, start);
+        for (int i = 0; i < saved.size(); i++) {
+            int index = indexes.get(i);
+            results[index] = UserBatchResultDTO.created(index, mapper.toDTO(saved.get(i)));
         }
+        return Arrays.asList(results);
+    }
 
-        mapper.fullUpdate(dto, user);
-        log.info("Updating user to db: {}", user);
-        return mapper.toDTO(userRepo.save(user));
+    @Override
+    @Transactional
+    @CachePut(cacheNames = USERS_CACHE, key = "#id")
+    public UserDTO fullUpdate(Long id, UserDTO dto) {
+        return update(id, dto, Operation.FULL_UPDATE, mapper::fullUpdate);
     }
 
     @Override
     @Transactional
+    @CachePut(cacheNames = USERS_CACHE, key = "#id")
     public UserDTO partialUpdate(Long id, UserDTO dto) {
+        return update(id, dto, Operation.PARTIAL_UPDATE, mapper::partialUpdate);
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = USERS_CACHE, key = "#id")
+    public void deleteById(Long id) {
+        var start = System.nanoTime();
+        log.debug("Deleting user with id {}", id);
+        if (userRepo.deleteAllByIds(List.of(id)) > 0) {
+            userCounter.added(-1);
+            auditLog.recordIds(Operation.DELETE, List.of(id), List.of(), start);
+        }
+    }
+
+    @Override
+    public long deleteAllById(Collection<Long> ids) {
+        var start = System.nanoTime();
+        var deleted = 0L;
+        for (var chunk : chunks(ids)) {
+            deleted += transactionTemplate.execute(status -> delete(userRepo.findExistingIds(chunk), start));
+        }
+        log.debug("Deleted {} of {} requested users", deleted, ids.size());
+        return deleted;
+    }
+
+    @Override
+    public long deleteAllByBirthDateBetween(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        var start = System.nanoTime();
+        var limit = Limit.of(bulkProps.chunkSize());
+        var deleted = 0L;
+        int affected;
+        do {
+            affected = transactionTemplate.execute(status ->
+                    delete(userRepo.findIdsByBirthDateBetween(from, to, limit), start));
+            deleted += affected;
+        } while (affected > 0);
+        log.debug("Deleted {} users born between {} and {}", deleted, from, to);
+        return deleted;
+    }
+
+    @Override
+    public long partialUpdateAll(Collection<Long> ids, UserDTO dto) {
+        var start = System.nanoTime();
+        var changes = bulkChanges(dto);
+        var changed = List.copyOf(changes.keySet());
+        var statement = changes.keySet().stream()
+                .map(field -> ", u.%s = :%s".formatted(field, field.replace('.', '_')))
+                .collect(Collectors.joining("", "update User u set u.version = u.version + 1", " where u.id in :ids"));
+
+        var updated = 0L;
+        for (var chunk : chunks(ids)) {
+            updated += transactionTemplate.execute(status -> {
+                var existing = userRepo.findExistingIds(chunk);
+                if (existing.isEmpty()) return 0;
+                var update = entityManager.createQuery(statement).setParameter("ids", existing);
+                changes.forEach((field, value) -> update.setParameter(field.replace('.', '_'), value));
+                var affected = update.executeUpdate();
+                auditLog.recordIds(Operation.PARTIAL_UPDATE, existing, changed, start);
+                evictAfterCommit(existing);
+                return affected;
+            });
+        }
+        log.debug("Updated {} of {} requested users", updated, ids.size());
+        return updated;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAll(Consumer<UserDTO> consumer) {
+        try (var users = userRepo.streamAll()) {
+            users.forEach(user -> {
+                consumer.accept(mapper.toDTO(user));
+                entityManager.detach(user);
+            });
+        }
+    }
+
+    private CursorPage<UserDTO> toCursorPage(Window<User> window) {
+        return new CursorPage<>(window.getContent().stream().map(mapper::toDTO).toList(),
+                CursorCodec.encodeNext(window));
+    }
+
+    private int delete(List<Long> ids, long start) {
+        if (ids.isEmpty()) return 0;
+        var deleted = userRepo.deleteAllByIds(ids);
+        userCounter.added(-deleted);
+        auditLog.recordIds(Operation.DELETE, ids, List.of(), start);
+        evictAfterCommit(ids);
+        return deleted;
+    }
+
+    private List<List<Long>> chunks(Collection<Long> ids) {
+        var distinct = List.copyOf(new LinkedHashSet<>(ids));
+        var chunkSize = bulkProps.chunkSize();
+        var chunks = new ArrayList<List<Long>>();
+        for (int from = 0; from < distinct.size(); from += chunkSize) {
+            chunks.add(distinct.subList(from, Math.min(from + chunkSize, distinct.size())));
+        }
+        return chunks;
+    }
+
+    private void evictAfterCommit(List<Long> ids) {
+        var cache = cacheManager.getCache(USERS_CACHE);
+        if (cache == null) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ids.forEach(cache::evict);
+            }
+        });
+    }
+
+    private static Map<String, Object> bulkChanges(UserDTO dto) {
+        if (dto.email() != null) {
+            throw new IllegalArgumentException("Email cannot be changed in bulk");
+        }
+        var changes = new LinkedHashMap<String, Object>();
+        if (dto.firstName() != null) {
+            changes.put("firstName", dto.firstName());
+        }
+        if (dto.lastName() != null) {
+            changes.put("lastName", dto.lastName());
+        }
+        if (dto.birthDate() != null) {
+            changes.put("birthDate", dto.birthDate());
+        }
+        if (dto.address() != null) {
+            changes.put("address.city", dto.address().city());
+            changes.put("address.country", dto.address().country());
+            changes.put("address.postCode", dto.address().postCode());
+            changes.put("address.state", dto.address().state());
+            changes.put("address.streetName", dto.address().streetName());
+            changes.put("address.streetNumber", dto.address().streetNumber());
+        }
+        if (dto.phoneNumber() != null) {
+            changes.put("phoneNumber", dto.phoneNumber());
+        }
+        if (changes.isEmpty()) {
+            throw new IllegalArgumentException("Bulk patch must change at least one field");
+        }
+        return changes;
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("From date must be before to date");
+        }
+    }
+
+    private UserDTO update(Long id, UserDTO dto, Operation operation, BiConsumer<UserDTO, User> changes) {
+        var start = System.nanoTime();
         var user = userRepo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "User with id %d not found".formatted(id))
                 );
-        if (userRepo.existsByEmail(dto.email())) {
-            throw new ResourceInConflictException(
-                    "User with email %s already registered".formatted(dto.email()));
+        checkVersion(user, dto);
+
+        var email = user.getEmail();
+        var before = UserChanges.snapshot(user);
+        changes.accept(dto, user);
+        log.debug("Updating user with id {}", id);
+        try {
+            userRepo.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (!email.equals(user.getEmail()) && isEmailConstraint(e)) {
+                throw new ResourceInConflictException(
+                        "User with email %s already registered".formatted(user.getEmail()));
+            }
+            throw e;
+        }
+        if (!email.equals(user.getEmail())) {
+            emailIndex.add(user.getEmail());
+        }
+        var changed = UserChanges.diff(before, UserChanges.snapshot(user));
+        if (!changed.isEmpty()) {
+            auditLog.record(operation, user, changed, start);
         }
+        return mapper.toDTO(user);
+    }
 
-        mapper.partialUpdate(dto, user);
-        log.info("Updating user to db: {}", user);
-        return mapper.toDTO(userRepo.save(user));
+    private static boolean isEmailConstraint(DataIntegrityViolationException e) {
+        return e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(EMAIL_CONSTRAINT);
     }
 
-    @Override
-    @Transactional
-    public void deleteById(Long id) {
-        log.info("Deleting user with id {}", id);
-        userRepo.deleteById(id);
+    private static void checkVersion(User user, UserDTO dto) {
+        if (dto.version() != null && !dto.version().equals(user.getVersion())) {
+            throw new PreconditionFailedException(
+                    "User with id %d has version %d, not %d".formatted(user.getId(), user.getVersion(), dto.version()));
+        }
+    }
+
+    private boolean isEmailTaken(String email) {
+        return emailIndex.mightContain(email) && userRepo.existsByEmail(email);
+    }
+
+    private boolean isUnderage(UserDTO dto) {
+        return ChronoUnit.YEARS.between(dto.birthDate(), LocalDate.now()) < userProps.age();
     }
 }
\ No newline at end of file
@@ -0,0 +1,90 @@
+package clear.solution.practisetest.sharding;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+/**
+ * Serialises writers of the same email across shards.
+ * <p>
+ * Every email has a row in {@code user_emails} on the shard picked by its hash. A writer
+ * inserts or locks the rows of its emails, one transaction per owning shard, and keeps
+ * them until its users are stored. Two writers of one email therefore never check for
+ * duplicates at the same time, which makes the caller's cross-shard check atomic.
+ * <p>
+ * Rows outlive the users that claimed them: a deleted or renamed user leaves its row
+ * behind, and the next writer of that email simply finds no user holding it.
+ */
+public class EmailClaims {
+
+    private final List<JdbcTemplate> jdbc = new ArrayList<>();
+    private final List<TransactionTemplate> transactions = new ArrayList<>();
+    private final List<TransactionTemplate> savepoints = new ArrayList<>();
+
+
+    public EmailClaims(ShardRoutingDataSource dataSource) {
+        for (var shard : dataSource.shards()) {
+            var transactionManager = new DataSourceTransactionManager(shard);
+            var savepoint = new TransactionTemplate(transactionManager);
+            savepoint.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+            jdbc.add(new JdbcTemplate(shard));
+            transactions.add(new TransactionTemplate(transactionManager));
+            savepoints.add(savepoint);
+        }
+    }
+
+    public int ownerOf(String email) {
+        return Math.floorMod(email.hashCode() * 0x9E3779B9, jdbc.size());
+    }
+
+    /**
+     * Locks the emails and runs the work while holding them. Shards and emails are locked
+     * in a fixed order so that writers of overlapping batches cannot deadlock; the locks are
+     * released once the work returns or fails.
+     */
+    public <T> T hold(Collection<String> emails, Supplier<T> work) {
+        var owners = new TreeMap<Integer, TreeSet<String>>();
+        emails.stream()
+                .filter(Objects::nonNull)
+                .forEach(email -> owners.computeIfAbsent(ownerOf(email), shard -> new TreeSet<>()).add(email));
+        return hold(owners.entrySet().iterator(), work);
+    }
+
+    private <T> T hold(Iterator<Map.Entry<Integer, TreeSet<String>>> owners, Supplier<T> work) {
+        if (!owners.hasNext()) {
+            return work.get();
+        }
+        var owner = owners.next();
+        int shard = owner.getKey();
+        return transactions.get(shard).execute(status -> {
+            owner.getValue().forEach(email -> lock(shard, email));
+            return hold(owners, work);
+        });
+    }
+
+    private void lock(int shard, String email) {
+        while (true) {
+            try {
+                savepoints.get(shard).executeWithoutResult(status ->
+                        jdbc.get(shard).update("insert into user_emails (email) values (?)", email));
+                return;
+            } catch (DuplicateKeyException e) {
+                var locked = jdbc.get(shard).queryForList(
+                        "select email from user_emails where email = ? for update", String.class, email);
+                if (!locked.isEmpty()) return;
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package clear.solution.practisetest.sharding;
+
+import java.util.function.Supplier;
+
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    public static <T> T on(int shard, Supplier<T> call) {
+        var previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package clear.solution.practisetest.sharding;
+
+/**
+ * Generates user ids that carry their shard in the lowest bits, so the shard of a user
+ * is read back from its id instead of being hashed or looked up.
+ * <p>
+ * Each shard has its own Snowflake sequence, narrowed by the bits the shard number takes,
+ * so inserts on different shards never contend for the same monitor.
+ */
+public class ShardIdGenerator {
+
+    public static final int MAX_SHARDS = 1 << 6;
+
+    private final SnowflakeIdGenerator[] ids;
+    private final int shardBits;
+
+
+    public ShardIdGenerator(long node, int shards) {
+        if (shards < 1 || shards > MAX_SHARDS) {
+            throw new IllegalArgumentException("Shard count must be between 1 and " + MAX_SHARDS);
+        }
+        this.shardBits = shardBits(shards);
+        this.ids = new SnowflakeIdGenerator[shards];
+        for (int shard = 0; shard < shards; shard++) {
+            ids[shard] = new SnowflakeIdGenerator(node, SnowflakeIdGenerator.SEQUENCE_BITS - shardBits);
+        }
+    }
+
+    public long next(int shard) {
+        return ids[shard].next() << shardBits | shard;
+    }
+
+    /**
+     * Returns the shard encoded in the id. Ids that were not generated for this shard count,
+     * such as ones typed in by a client, still map to some shard, where they are not found.
+     */
+    public static int shardOf(long id, int shards) {
+        return (int) ((id & ((1L << shardBits(shards)) - 1)) % shards);
+    }
+
+    private static int shardBits(int shards) {
+        return Integer.SIZE - Integer.numberOfLeadingZeros(shards - 1);
+    }
+}
@@ -0,0 +1,54 @@
+package clear.solution.practisetest.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final List<DataSource> shards;
+
+
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = List.copyOf(shards);
+        var targets = new HashMap<Object, Object>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public List<DataSource> shards() {
+        return shards;
+    }
+
+    public int shardOf(long id) {
+        return ShardIdGenerator.shardOf(id, shards.size());
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        var shard = ShardContext.current();
+        if (shard == null) {
+            throw new IllegalStateException("No shard selected; run the call inside ShardContext.on(...)");
+        }
+        return shard;
+    }
+
+    @Override
+    public void close() {
+        shards.forEach(shard -> {
+            if (shard instanceof HikariDataSource hikari) {
+                hikari.close();
+            }
+        });
+    }
+}
@@ -0,0 +1,63 @@
+package clear.solution.practisetest.sharding;
+
+import java.time.Instant;
+import java.util.function.LongSupplier;
+
+public class SnowflakeIdGenerator {
+
+    static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE = (1L << NODE_BITS) - 1;
+
+    private final long node;
+    private final int sequenceBits;
+    private final long sequenceMask;
+    private final LongSupplier clock;
+    private long lastMillis = -1;
+    private long sequence;
+
+
+    public SnowflakeIdGenerator(long node) {
+        this(node, SEQUENCE_BITS);
+    }
+
+    /**
+     * Creates a generator with a narrower sequence, leaving the lowest
+     * {@code SEQUENCE_BITS - sequenceBits} bits of every id free for the caller.
+     */
+    public SnowflakeIdGenerator(long node, int sequenceBits) {
+        this(node, sequenceBits, System::currentTimeMillis);
+    }
+
+    SnowflakeIdGenerator(long node, LongSupplier clock) {
+        this(node, SEQUENCE_BITS, clock);
+    }
+
+    SnowflakeIdGenerator(long node, int sequenceBits, LongSupplier clock) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE);
+        }
+        if (sequenceBits < 1 || sequenceBits > SEQUENCE_BITS) {
+            throw new IllegalArgumentException("Sequence bits must be between 1 and " + SEQUENCE_BITS);
+        }
+        this.node = node;
+        this.sequenceBits = sequenceBits;
+        this.sequenceMask = (1L << sequenceBits) - 1;
+        this.clock = clock;
+    }
+
+    public synchronized long next() {
+        var now = clock.getAsLong();
+        if (now > lastMillis) {
+            lastMillis = now;
+            sequence = 0;
+        } else {
+            sequence = (sequence + 1) & sequenceMask;
+            if (sequence == 0) {
+                lastMillis++;
+            }
+        }
+        return (lastMillis - EPOCH) << (NODE_BITS + sequenceBits) | node << sequenceBits | sequence;
+    }
+}
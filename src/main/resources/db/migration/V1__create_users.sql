@@ -0,0 +1,19 @@
+create sequence users_seq start with 1 increment by 50;
+
+create table users
+(
+    id            bigint       not null,
+    email         varchar(320) not null,
+    first_name    varchar(30)  not null,
+    last_name     varchar(30)  not null,
+    birth_date    date         not null,
+    city          varchar(50),
+    country       varchar(50),
+    post_code     varchar(10),
+    state         varchar(50),
+    street_name   varchar(50),
+    street_number varchar(50),
+    phone_number  varchar(255),
+    constraint users_pk primary key (id),
+    constraint users_email_uk unique (email)
+);
@@ -0,0 +1 @@
+create index users_birth_date_id_idx on users (birth_date, id);
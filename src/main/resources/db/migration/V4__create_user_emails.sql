@@ -0,0 +1,6 @@
+-- Per-email locks that serialise writers of the same email across shards; unused without sharding.
+create table user_emails
+(
+    email varchar(320) not null,
+    constraint user_emails_pk primary key (email)
+);
@@ -0,0 +1,51 @@
+package clear.solution.practisetest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:metrics")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+
+    @Test
+    void should_expose_service_repository_pool_and_outcome_metrics() throws Exception {
+        mockMvc.perform(post("/api/v1/users")
+                        .contentType(APPLICATION_JSON_VALUE)
+                        .content("""
+                                {"email":"metrics@example.com","firstName":"John","lastName":"Doe","birthDate":"1990-05-15"}"""))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/v1/users/{id}", Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/users"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "user_service_seconds_bucket{class=\"clear.solution.practisetest.service.impl.UserServiceImpl\","
+                                + "exception=\"ResourceNotFoundException\",method=\"getById\"")))
+                .andExpect(content().string(not(containsString("user_mapper_seconds"))))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_bucket")))
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString("hikaricp_connections_active")))
+                .andExpect(content().string(containsString("user_errors_total{outcome=\"not_found\",} 1.0")))
+                .andExpect(content().string(containsString("user_audit_events_total{result=\"queued\",}")));
+    }
+}
@@ -0,0 +1,160 @@
+package clear.solution.practisetest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RequestModeBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 1000);
+    private static final Duration WARM_UP = Duration.ofSeconds(Long.getLong("benchmark.warm-up", 5));
+    private static final Duration MEASURE = Duration.ofSeconds(Long.getLong("benchmark.measure", 15));
+    private static final int SEED_USERS = 1000;
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    private final AtomicLong emails = new AtomicLong();
+
+
+    @Test
+    void compare_platform_and_virtual_threads() throws Exception {
+        var results = new ArrayList<Result>();
+        for (var mode : Mode.values()) {
+            try (var context = start(mode)) {
+                var base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                var client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .executor(Executors.newVirtualThreadPerTaskExecutor())
+                        .build();
+                var ids = seed(client, base);
+
+                results.add(run(mode, "getById", client,
+                        i -> get(base + "/api/v1/users/" + ids[(int) (i % ids.length)])));
+                results.add(run(mode, "getAll", client, i -> get(base + "/api/v1/users?page=" + i % 50 + "&size=20")));
+                results.add(run(mode, "create", client, i -> post(base + "/api/v1/users", user())));
+            }
+        }
+
+        System.out.printf("%n%-10s %-8s %12s %10s %10s %8s%n", "mode", "endpoint", "req/s", "p50 ms", "p99 ms", "errors");
+        results.forEach(r -> System.out.printf("%-10s %-8s %12.0f %10.2f %10.2f %8d%n",
+                r.mode(), r.endpoint(), r.throughput(), r.p50(), r.p99(), r.errors()));
+        results.forEach(r -> assertEquals(0, r.errors(), () -> r.mode() + " " + r.endpoint() + " had errors"));
+    }
+
+    private ConfigurableApplicationContext start(Mode mode) {
+        return new SpringApplicationBuilder(PractiseTestApplication.class)
+                .profiles(mode.profiles)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark-" + mode.name().toLowerCase(),
+                        "spring.devtools.restart.enabled=false",
+                        "logging.level.clear.solution.practisetest=warn")
+                .run();
+    }
+
+    private long[] seed(HttpClient client, String base) throws Exception {
+        var ids = new ArrayList<Long>();
+        for (int batch = 0; batch < SEED_USERS / 500; batch++) {
+            var users = IntStream.range(0, 500).mapToObj(i -> user()).collect(Collectors.joining(",", "[", "]"));
+            var response = client.send(post(base + "/api/v1/users/batch", "{\"users\":" + users + "}"),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode());
+            ID.matcher(response.body()).results().forEach(m -> ids.add(Long.parseLong(m.group(1))));
+        }
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private Result run(Mode mode, String endpoint, HttpClient client, LongFunction<HttpRequest> requests)
+            throws InterruptedException {
+        measure(client, requests, WARM_UP, new ConcurrentLinkedQueue<>(), new LongAdder());
+
+        var latencies = new ConcurrentLinkedQueue<long[]>();
+        var errors = new LongAdder();
+        measure(client, requests, MEASURE, latencies, errors);
+
+        var all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(mode, endpoint, all.length / (MEASURE.toNanos() / 1e9),
+                percentile(all, 0.50), percentile(all, 0.99), errors.sum());
+    }
+
+    private static void measure(HttpClient client, LongFunction<HttpRequest> requests, Duration duration,
+                                ConcurrentLinkedQueue<long[]> latencies, LongAdder errors)
+            throws InterruptedException {
+        var deadline = System.nanoTime() + duration.toNanos();
+        var sequence = new AtomicLong();
+        try (var clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.submit(() -> {
+                    var samples = new long[1024];
+                    var count = 0;
+                    while (System.nanoTime() < deadline) {
+                        var start = System.nanoTime();
+                        try {
+                            var response = client.send(requests.apply(sequence.getAndIncrement()),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) errors.increment();
+                        } catch (Exception e) {
+                            errors.increment();
+                        }
+                        if (count == samples.length) samples = Arrays.copyOf(samples, count * 2);
+                        samples[count++] = System.nanoTime() - start;
+                    }
+                    latencies.add(Arrays.copyOf(samples, count));
+                });
+            }
+        }
+    }
+
+    private String user() {
+        return """
+                {"email":"bench%d@example.com","firstName":"John","lastName":"Doe","birthDate":"1990-05-15"}"""
+                .formatted(emails.incrementAndGet());
+    }
+
+    private static HttpRequest get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).GET().build();
+    }
+
+    private static HttpRequest post(String uri, String body) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) return Double.NaN;
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1] / 1e6;
+    }
+
+    private enum Mode {
+        PLATFORM(), VIRTUAL("virtual-threads");
+
+        private final String[] profiles;
+
+        Mode(String... profiles) {
+            this.profiles = profiles;
+        }
+    }
+
+    private record Result(Mode mode, String endpoint, double throughput, double p50, double p99, long errors) {
+    }
+}
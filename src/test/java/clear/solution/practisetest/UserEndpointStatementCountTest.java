@@ -0,0 +1,143 @@
+package clear.solution.practisetest;
+
+import clear.solution.practisetest.support.SqlCaptor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {SqlCaptor.PROPERTY, "spring.datasource.url=jdbc:h2:mem:endpoint-statements"})
+@AutoConfigureMockMvc
+class UserEndpointStatementCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private long id;
+
+
+    @BeforeEach
+    void setUp() throws Exception {
+        var response = mockMvc.perform(post("/api/v1/users")
+                        .contentType(APPLICATION_JSON_VALUE)
+                        .content(user("setup" + System.nanoTime())))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        id = objectMapper.readTree(response).get("id").asLong();
+    }
+
+    @Test
+    void should_create_with_one_insert() throws Exception {
+        perform(post("/api/v1/users").contentType(APPLICATION_JSON_VALUE).content(user("create" + System.nanoTime())),
+                status().isCreated(), 2, 1, 0, 0);
+    }
+
+    @Test
+    void should_create_batch_without_per_user_queries() throws Exception {
+        var prefix = "batch" + System.nanoTime();
+        var users = IntStream.range(0, 100)
+                .mapToObj(i -> user(prefix + "-" + i))
+                .collect(Collectors.joining(",", "{\"users\":[", "]}"));
+
+        perform(post("/api/v1/users/batch").contentType(APPLICATION_JSON_VALUE).content(users),
+                status().isOk(), 4, 1, 0, 0);
+    }
+
+    @Test
+    void should_get_by_id_with_at_most_one_select() throws Exception {
+        perform(get("/api/v1/users/{id}", id), status().isOk(), 1, 0, 0, 0);
+    }
+
+    @Test
+    void should_get_page_without_n_plus_one() throws Exception {
+        perform(get("/api/v1/users?size=5"), status().isOk(), 2, 0, 0, 0);
+        perform(get("/api/v1/users?size=50&from=1900-01-01&to=2000-01-01"), status().isOk(), 2, 0, 0, 0);
+        perform(get("/api/v1/users?size=5&cursor="), status().isOk(), 1, 0, 0, 0);
+    }
+
+    @Test
+    void should_look_up_many_users_with_one_select() throws Exception {
+        var ids = new ArrayList<>(createUsers("lookup" + System.nanoTime(), 100));
+        ids.add(Long.MAX_VALUE);
+
+        perform(post("/api/v1/users/lookup").contentType(APPLICATION_JSON_VALUE).content("{\"ids\":" + ids + "}"),
+                status().isOk(), 1, 0, 0, 0);
+    }
+
+    @Test
+    void should_export_with_one_select() throws Exception {
+        perform(get("/api/v1/users/export"), status().isOk(), 1, 0, 0, 0);
+    }
+
+    @Test
+    void should_update_with_one_select_and_one_update() throws Exception {
+        perform(put("/api/v1/users/{id}", id).contentType(APPLICATION_JSON_VALUE).content(user("put" + System.nanoTime())),
+                status().isOk(), 1, 0, 1, 0);
+        perform(patch("/api/v1/users/{id}", id).contentType(APPLICATION_JSON_VALUE).content("{\"firstName\":\"Jane\"}"),
+                status().isOk(), 1, 0, 1, 0);
+    }
+
+    @Test
+    void should_delete_with_one_delete() throws Exception {
+        perform(delete("/api/v1/users/{id}", id), status().isOk(), 0, 0, 0, 1);
+    }
+
+    @Test
+    void should_bulk_delete_with_one_select_and_one_delete_per_chunk() throws Exception {
+        var ids = createUsers("bulk-delete" + System.nanoTime(), 100);
+
+        perform(post("/api/v1/users/delete").contentType(APPLICATION_JSON_VALUE).content("{\"ids\":" + ids + "}"),
+                status().isOk(), 1, 0, 0, 1);
+    }
+
+    @Test
+    void should_bulk_patch_with_one_select_and_one_update_per_chunk() throws Exception {
+        var ids = createUsers("bulk-patch" + System.nanoTime(), 100);
+
+        perform(patch("/api/v1/users").contentType(APPLICATION_JSON_VALUE)
+                        .content("{\"ids\":" + ids + ",\"changes\":{\"lastName\":\"Smith\",\"address\":{\"city\":\"Kyiv\",\"country\":\"Ukraine\"}}}"),
+                status().isOk(), 1, 0, 1, 0);
+    }
+
+    private void perform(RequestBuilder request, ResultMatcher expected,
+                         int selects, int inserts, int updates, int deletes) throws Exception {
+        SqlCaptor.clear();
+        mockMvc.perform(request).andExpect(expected);
+        SqlCaptor.assertAtMost(selects, inserts, updates, deletes);
+    }
+
+    private List<Long> createUsers(String prefix, int count) throws Exception {
+        var users = IntStream.range(0, count)
+                .mapToObj(i -> user(prefix + "-" + i))
+                .collect(Collectors.joining(",", "{\"users\":[", "]}"));
+        var response = mockMvc.perform(post("/api/v1/users/batch").contentType(APPLICATION_JSON_VALUE).content(users))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        var ids = new ArrayList<Long>();
+        objectMapper.readTree(response).forEach(result -> ids.add(result.get("user").get("id").asLong()));
+        return ids;
+    }
+
+    private static String user(String name) {
+        return """
+                {"email":"%s@example.com","firstName":"John","lastName":"Doe","birthDate":"1990-05-15"}"""
+                .formatted(name);
+    }
+}
@@ -0,0 +1,48 @@
+package clear.solution.practisetest;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+@SpringBootTest(webEnvironment = RANDOM_PORT)
+@ActiveProfiles("virtual-threads")
+class VirtualThreadsProfileTest {
+
+    @Autowired
+    private ServletWebServerApplicationContext context;
+
+    @Autowired
+    private SimpleAsyncTaskExecutor applicationTaskExecutor;
+
+    @Autowired
+    private DataSource dataSource;
+
+
+    @Test
+    void should_run_requests_and_async_work_on_virtual_threads() throws Exception {
+        var tomcat = ((TomcatWebServer) context.getWebServer()).getTomcat();
+        assertInstanceOf(VirtualThreadExecutor.class, tomcat.getConnector().getProtocolHandler().getExecutor());
+
+        var virtual = applicationTaskExecutor.submit(() -> Thread.currentThread().isVirtual()).get();
+        assertTrue(virtual);
+        assertTrue(applicationTaskExecutor.isThrottleActive());
+    }
+
+    @Test
+    void should_bound_database_concurrency_with_pool() {
+        var hikari = assertInstanceOf(HikariDataSource.class, dataSource);
+        assertEquals(40, hikari.getMaximumPoolSize());
+        assertEquals(2000, hikari.getConnectionTimeout());
+    }
+}
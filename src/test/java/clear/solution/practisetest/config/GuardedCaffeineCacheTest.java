@@ -0,0 +1,105 @@
+package clear.solution.practisetest.config;
+
+import clear.solution.practisetest.replica.ReplicaRoutingDataSource;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GuardedCaffeineCacheTest {
+
+    private GuardedCaffeineCache cache;
+
+
+    @BeforeEach
+    void setUp() {
+        cache = new GuardedCaffeineCache("users", Caffeine.newBuilder().build(), false);
+    }
+
+    @Test
+    void should_load_and_store_on_miss() {
+        assertEquals("v1", cache.get(1L, () -> "v1"));
+
+        assertEquals("v1", cache.get(1L, () -> fail("loaded twice")));
+    }
+
+    @Test
+    void should_not_overwrite_a_put_made_while_loading() {
+        var loaded = cache.get(1L, () -> {
+            cache.put(1L, "v2");
+            return "v1";
+        });
+
+        assertEquals("v1", loaded);
+        assertEquals("v2", cache.get(1L, String.class));
+    }
+
+    @Test
+    void should_not_resurrect_a_key_evicted_while_loading() {
+        cache.get(1L, () -> {
+            cache.evict(1L);
+            return "v1";
+        });
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void should_not_store_a_load_that_raced_a_clear() {
+        cache.get(1L, () -> {
+            cache.clear();
+            return "v1";
+        });
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void should_reject_a_stale_generation() {
+        var generation = cache.generation(1L);
+        cache.evict(1L);
+
+        cache.putIfUnchanged(1L, "v1", generation);
+        assertNull(cache.get(1L));
+
+        cache.putIfUnchanged(1L, "v1", cache.generation(1L));
+        assertEquals("v1", cache.get(1L, String.class));
+    }
+
+    @Test
+    void should_not_store_a_load_served_by_the_replica() throws SQLException {
+        var replica = mock(DataSource.class);
+        when(replica.getConnection()).thenReturn(mock(Connection.class));
+        try (var routing = new ReplicaRoutingDataSource(mock(DataSource.class), replica,
+                Duration.ofHours(1), Duration.ofSeconds(1), 1, new SimpleMeterRegistry())) {
+            assertEquals("v1", cache.get(1L, () -> {
+                routing.getConnection();
+                return "v1";
+            }));
+        }
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void should_wrap_loader_failures() {
+        var failure = new IllegalStateException("boom");
+
+        var thrown = assertThrows(Cache.ValueRetrievalException.class, () -> cache.get(1L, () -> {
+            throw failure;
+        }));
+
+        assertSame(failure, thrown.getCause());
+        assertNull(cache.get(1L));
+    }
+}
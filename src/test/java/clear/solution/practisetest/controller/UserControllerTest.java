@@ -1,23 +1,39 @@
 package clear.solution.practisetest.controller;
 
 import clear.solution.practisetest.dto.AddressDTO;
+import clear.solution.practisetest.dto.CursorPage;
+import clear.solution.practisetest.dto.TotalCount;
+import clear.solution.practisetest.dto.UserBatchDTO;
+import clear.solution.practisetest.dto.UserBatchResultDTO;
 import clear.solution.practisetest.dto.UserDTO;
+import clear.solution.practisetest.dto.UserLookupDTO;
+import clear.solution.practisetest.dto.mapper.UserCsvMapper;
+import clear.solution.practisetest.dto.validation.UserDTOValidator;
+import clear.solution.practisetest.exception.PreconditionFailedException;
 import clear.solution.practisetest.exception.ResourceInConflictException;
 import clear.solution.practisetest.exception.ResourceNotFoundException;
 import clear.solution.practisetest.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
@@ -26,6 +42,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(UserController.class)
+@Import({UserCsvMapper.class, UserDTOValidator.class, SimpleMeterRegistry.class})
 class UserControllerTest {
 
     @Autowired
@@ -34,6 +51,9 @@ class UserControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @MockBean
     private UserService userService;
 
@@ -80,6 +100,7 @@ class UserControllerTest {
         this.mockMvc.perform(get("/api/v1/users"))
                 .andExpect(status().isOk())
                 .andExpect(header().string("X-Total-Count", "2"))
+                .andExpect(header().string("X-Total-Count-Strategy", "exact"))
                 .andExpect(content().contentType(APPLICATION_JSON_VALUE))
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$", hasSize(2)))
@@ -89,6 +110,20 @@ class UserControllerTest {
                 .andExpect(jsonPath("$[1].firstName").value("Jane"));
 
         verify(userService, times(1)).getAll(any(Pageable.class));
+        verify(userService, never()).countAll();
+    }
+
+    @Test
+    void should_get_all_with_counted_total_when_has_next_page() throws Exception {
+        var pageable = PageRequest.of(0, 2);
+        when(userService.getAll(pageable)).thenReturn(new SliceImpl<>(List.of(u1, u2), pageable, true));
+        when(userService.countAll()).thenReturn(new TotalCount(40, TotalCount.Strategy.CACHED));
+
+        mockMvc.perform(get("/api/v1/users").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "40"))
+                .andExpect(header().string("X-Total-Count-Strategy", "cached"))
+                .andExpect(jsonPath("$", hasSize(2)));
     }
 
     @Test
@@ -117,6 +152,82 @@ class UserControllerTest {
                 .getAllByBirthDateBetween(eq(from), eq(to), any(Pageable.class));
     }
 
+    @Test
+    void should_scroll_all_without_count() throws Exception {
+        when(userService.scrollAll("", 10)).thenReturn(new CursorPage<>(List.of(u1, u2), "next"));
+
+        mockMvc.perform(get("/api/v1/users").param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next"))
+                .andExpect(header().doesNotExist("X-Total-Count"))
+                .andExpect(jsonPath("$", hasSize(2)));
+
+        verify(userService, never()).countAll();
+        verify(userService, never()).getAll(any(Pageable.class));
+    }
+
+    @Test
+    void should_scroll_all_with_birthdate_between_and_count() throws Exception {
+        var from = LocalDate.of(2022, 1, 1);
+        var to = LocalDate.of(2022, 1, 31);
+        when(userService.scrollAllByBirthDateBetween(from, to, "abc", 5))
+                .thenReturn(new CursorPage<>(List.of(u1), null));
+        when(userService.countAllByBirthDateBetween(from, to)).thenReturn(TotalCount.exact(6));
+
+        var request = get("/api/v1/users")
+                .param("from", from.toString())
+                .param("to", to.toString())
+                .param("cursor", "abc")
+                .param("size", "5")
+                .param("count", "true");
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(header().string("X-Total-Count", "6"))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void should_export_ndjson() throws Exception {
+        exportUsers(u1, u2);
+
+        var result = mockMvc.perform(get("/api/v1/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        var lines = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString().split("\n");
+
+        assertEquals(2, lines.length);
+        assertEquals(objectMapper.writeValueAsString(u1), lines[0]);
+        assertEquals(objectMapper.writeValueAsString(u2), lines[1]);
+    }
+
+    @Test
+    void should_export_csv() throws Exception {
+        exportUsers(savedDTO);
+
+        var result = mockMvc.perform(get("/api/v1/users/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(content().string(UserCsvMapper.HEADER + "\n"
+                        + "1,user1@example.com,John,Doe,1990-05-15,123456789012,,,,,,\n"));
+    }
+
+    @Test
+    void should_response_bad_request_when_export_format_unknown() throws Exception {
+        mockMvc.perform(get("/api/v1/users/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+
+        verify(userService, never()).exportAll(any());
+    }
+
     @Test
     void should_get_by_id() throws Exception {
         when(userService.getById(1L)).thenReturn(u1);
@@ -135,15 +246,57 @@ class UserControllerTest {
         verify(userService, times(1)).getById(1L);
     }
 
+    @Test
+    void should_get_by_id_with_strong_etag() throws Exception {
+        when(userService.getById(1L)).thenReturn(u1.withVersion(3L));
+
+        mockMvc.perform(get("/api/v1/users/{id}", 1))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(jsonPath("$.version").doesNotExist());
+    }
+
+    @Test
+    void should_response_not_modified_when_etag_matches() throws Exception {
+        when(userService.getById(1L)).thenReturn(u1.withVersion(3L));
+
+        mockMvc.perform(get("/api/v1/users/{id}", 1).header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void should_get_all_with_weak_etag_changing_with_versions() throws Exception {
+        when(userService.getAll(any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(u1.withVersion(0L), u2.withVersion(0L))));
+
+        var etag = mockMvc.perform(get("/api/v1/users"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/users").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        when(userService.getAll(any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(u1.withVersion(1L), u2.withVersion(0L))));
+
+        mockMvc.perform(get("/api/v1/users").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+        assertTrue(etag.startsWith("W/\""));
+    }
+
     @Test
     void should_response_not_found_when_get_by_id() throws Exception {
         when(userService.getById(1L)).thenThrow(new ResourceNotFoundException("Not found"));
+        var before = errors("not_found");
 
         mockMvc.perform(get("/api/v1/users/{id}", 1))
                 .andExpect(status().isNotFound())
                 .andExpect(content().contentType(APPLICATION_PROBLEM_JSON_VALUE));
 
         verify(userService, times(1)).getById(1L);
+        assertEquals(before + 1, errors("not_found"));
     }
 
     @Test
@@ -171,6 +324,7 @@ class UserControllerTest {
     @Test
     void should_response_conflict_when_create() throws Exception {
         when(userService.create(createDTO)).thenThrow(new ResourceInConflictException("Conflict"));
+        var before = errors("conflict");
 
         mockMvc.perform(post("/api/v1/users")
                 .contentType(APPLICATION_JSON_VALUE)
@@ -178,6 +332,7 @@ class UserControllerTest {
                 .andExpect(status().isConflict());
 
         verify(userService, times(1)).create(createDTO);
+        assertEquals(before + 1, errors("conflict"));
     }
 
     @Test
@@ -192,6 +347,62 @@ class UserControllerTest {
         verify(userService, times(1)).create(createDTO);
     }
 
+    @Test
+    void should_response_validation_errors_when_create_with_invalid_user() throws Exception {
+        var invalid = new UserDTO(null, "not an email", "J", "Doe", LocalDate.now().plusDays(1),
+                new AddressDTO("", "Ukraine", null, null, null, null), null);
+        var before = errors("validation");
+
+        mockMvc.perform(post("/api/v1/users")
+                        .contentType(APPLICATION_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(invalid)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.title").value("Validation error"))
+                .andExpect(jsonPath("$.errors.email[0]").value("Email address are not valid"))
+                .andExpect(jsonPath("$.errors.firstName[0]").value("First name must be between 2 and 30 symbols"))
+                .andExpect(jsonPath("$.errors.birthDate[0]").value("Birth date must be in past"))
+                .andExpect(jsonPath("$.errors['address.city']", hasSize(2)));
+        assertEquals(before + 1, errors("validation"));
+
+        verify(userService, never()).create(any());
+    }
+
+    @Test
+    void should_create_all() throws Exception {
+        when(userService.createAll(List.of(createDTO, createDTO))).thenReturn(List.of(
+                UserBatchResultDTO.created(0, savedDTO),
+                UserBatchResultDTO.conflict(1, "Conflict")));
+
+        var request = post("/api/v1/users/batch")
+                .contentType(APPLICATION_JSON_VALUE)
+                .content(objectMapper.writeValueAsString(new UserBatchDTO(List.of(createDTO, createDTO))));
+
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(APPLICATION_JSON_VALUE))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].user.id").value(1))
+                .andExpect(jsonPath("$[1].status").value("CONFLICT"))
+                .andExpect(jsonPath("$[1].error").value("Conflict"));
+
+        verify(userService, times(1)).createAll(List.of(createDTO, createDTO));
+    }
+
+    @Test
+    void should_response_bad_request_when_create_all_with_invalid_user() throws Exception {
+        var invalid = new UserDTO(null, "not an email", "John", "Doe",
+                LocalDate.of(1990, 5, 15), null, null);
+
+        mockMvc.perform(post("/api/v1/users/batch")
+                        .contentType(APPLICATION_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(new UserBatchDTO(List.of(createDTO, invalid)))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors['users[1].email']").exists());
+
+        verify(userService, never()).createAll(any());
+    }
+
     @Test
     void should_full_update() throws Exception {
         when(userService.fullUpdate(1L, createDTO)).thenReturn(u1);
@@ -234,6 +445,45 @@ class UserControllerTest {
         verify(userService, times(1)).partialUpdate(1L, createDTO);
     }
 
+    @Test
+    void should_update_with_if_match_version() throws Exception {
+        when(userService.fullUpdate(1L, createDTO.withVersion(3L))).thenReturn(u1.withVersion(4L));
+        when(userService.partialUpdate(1L, createDTO.withVersion(3L))).thenReturn(u1.withVersion(4L));
+
+        mockMvc.perform(put("/api/v1/users/{id}", 1L)
+                        .header("If-Match", "\"3\"")
+                        .contentType(APPLICATION_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(createDTO)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+        mockMvc.perform(patch("/api/v1/users/{id}", 1L)
+                        .header("If-Match", "\"3\"")
+                        .contentType(APPLICATION_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(createDTO)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+    }
+
+    @Test
+    void should_response_precondition_failed_when_if_match_differs() throws Exception {
+        when(userService.fullUpdate(1L, createDTO.withVersion(2L)))
+                .thenThrow(new PreconditionFailedException("Version differs"));
+
+        mockMvc.perform(put("/api/v1/users/{id}", 1L)
+                        .header("If-Match", "\"2\"")
+                        .contentType(APPLICATION_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(createDTO)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(content().contentType(APPLICATION_PROBLEM_JSON_VALUE));
+        mockMvc.perform(patch("/api/v1/users/{id}", 1L)
+                        .header("If-Match", "W/\"2\"")
+                        .contentType(APPLICATION_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(createDTO)))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(userService, never()).partialUpdate(any(), any());
+    }
+
     @Test
     void should_delete_by_id() throws Exception {
         mockMvc.perform(delete("/api/v1/users/{id}", 1L))
@@ -241,4 +491,86 @@ class UserControllerTest {
 
         verify(userService, times(1)).deleteById(1L);
     }
-}
\ No newline at end of file
+
+    @Test
+    void should_look_up_users_and_report_missing_ids() throws Exception {
+        when(userService.getAllById(List.of(2L, 1L, 3L)))
+                .thenReturn(new UserLookupDTO(List.of(u2, u1), List.of(3L)));
+
+        mockMvc.perform(post("/api/v1/users/lookup")
+                        .contentType(APPLICATION_JSON_VALUE)
+                        .content("{\"ids\":[2,1,3]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users", hasSize(2)))
+                .andExpect(jsonPath("$.users[0].id").value(2))
+                .andExpect(jsonPath("$.users[1].id").value(1))
+                .andExpect(jsonPath("$.missing[0]").value(3));
+    }
+
+    @Test
+    void should_delete_all_by_ids() throws Exception {
+        when(userService.deleteAllById(List.of(1L, 2L, 3L))).thenReturn(2L);
+
+        mockMvc.perform(post("/api/v1/users/delete")
+                        .contentType(APPLICATION_JSON_VALUE)
+                        .content("{\"ids\":[1,2,3]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
+    }
+
+    @Test
+    void should_reject_empty_bulk_delete() throws Exception {
+        mockMvc.perform(post("/api/v1/users/delete")
+                        .contentType(APPLICATION_JSON_VALUE)
+                        .content("{\"ids\":[]}"))
+                .andExpect(status().isBadRequest());
+
+        verify(userService, never()).deleteAllById(any());
+    }
+
+    @Test
+    void should_delete_all_by_birth_date_range() throws Exception {
+        var from = LocalDate.of(1980, 1, 1);
+        var to = LocalDate.of(1990, 1, 1);
+        when(userService.deleteAllByBirthDateBetween(from, to)).thenReturn(5L);
+
+        mockMvc.perform(delete("/api/v1/users?from=1980-01-01&to=1990-01-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(5));
+    }
+
+    @Test
+    void should_partial_update_all() throws Exception {
+        var changes = new UserDTO(null, null, "Jane", null, null, null, null);
+        when(userService.partialUpdateAll(List.of(1L, 2L), changes)).thenReturn(2L);
+
+        mockMvc.perform(patch("/api/v1/users")
+                        .contentType(APPLICATION_JSON_VALUE)
+                        .content("{\"ids\":[1,2],\"changes\":{\"firstName\":\"Jane\"}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
+    }
+
+    @Test
+    void should_validate_bulk_patch_changes() throws Exception {
+        mockMvc.perform(patch("/api/v1/users")
+                        .contentType(APPLICATION_JSON_VALUE)
+                        .content("{\"ids\":[1,2],\"changes\":{\"firstName\":\"J\"}}"))
+                .andExpect(status().isBadRequest());
+
+        verify(userService, never()).partialUpdateAll(any(), any());
+    }
+
+    private double errors(String outcome) {
+        return meterRegistry.get("user.errors").tag("outcome", outcome).counter().count();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void exportUsers(UserDTO... users) {
+        doAnswer(invocation -> {
+            var consumer = (Consumer<UserDTO>) invocation.getArgument(0);
+            List.of(users).forEach(consumer);
+            return null;
+        }).when(userService).exportAll(any());
+    }
+}
@@ -0,0 +1,70 @@
+package clear.solution.practisetest.controller;
+
+import clear.solution.practisetest.dto.ImportReportDTO;
+import clear.solution.practisetest.service.UserImportService;
+import clear.solution.practisetest.service.UserImportService.Format;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(UserImportController.class)
+@Import(SimpleMeterRegistry.class)
+class UserImportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserImportService importService;
+
+    private final ImportReportDTO report = new ImportReportDTO(2, 2, 0, 2, List.of());
+
+
+    @Test
+    void should_import_uploaded_file() throws Exception {
+        when(importService.importUsers(any(), eq(Format.NDJSON), eq("job-1"))).thenReturn(report);
+
+        var file = new MockMultipartFile("file", "users.ndjson", "application/x-ndjson", "{}\n{}\n".getBytes());
+        mockMvc.perform(multipart("/api/v1/users/import").file(file).param("importId", "job-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.checkpoint").value(2));
+
+        verify(importService, times(1)).importUsers(any(), eq(Format.NDJSON), eq("job-1"));
+    }
+
+    @Test
+    void should_response_bad_request_when_file_format_unknown() throws Exception {
+        var file = new MockMultipartFile("file", "users.xml", "application/xml", "<users/>".getBytes());
+        mockMvc.perform(multipart("/api/v1/users/import").file(file))
+                .andExpect(status().isBadRequest());
+
+        verify(importService, never()).importUsers(any(), any(), any());
+    }
+
+    @Test
+    void should_import_local_file() throws Exception {
+        when(importService.importFile("users.csv", null)).thenReturn(report);
+
+        mockMvc.perform(post("/api/v1/users/import").param("path", "users.csv"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.processed").value(2));
+
+        verify(importService, times(1)).importFile("users.csv", null);
+    }
+}
@@ -0,0 +1,107 @@
+package clear.solution.practisetest.controller.limit;
+
+import clear.solution.practisetest.config.UserLimitProperties.Budget;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+
+    @Test
+    void should_reject_when_limit_is_reached() {
+        var limiter = new AdaptiveLimiter(new Budget(2, 1, 10), 2.0, 0.2, 100);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.inFlight());
+
+        limiter.release(FAST, false);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void should_grow_limit_while_latency_is_stable() {
+        var limiter = new AdaptiveLimiter(new Budget(4, 1, 100), 2.0, 0.2, 100);
+
+        saturate(limiter, FAST, 200);
+
+        assertTrue(limiter.limit() > 4);
+        assertTrue(limiter.limit() <= 100);
+    }
+
+    @Test
+    void should_shrink_limit_when_latency_grows() {
+        var limiter = new AdaptiveLimiter(new Budget(50, 2, 100), 2.0, 0.2, 100);
+        saturate(limiter, FAST, 100);
+        var before = limiter.limit();
+
+        saturate(limiter, SLOW, 3);
+
+        assertTrue(limiter.limit() < before);
+        assertTrue(limiter.limit() >= 2);
+    }
+
+    @Test
+    void should_not_grow_limit_when_underused() {
+        var limiter = new AdaptiveLimiter(new Budget(20, 1, 100), 2.0, 0.2, 100);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(FAST, false);
+        }
+
+        assertEquals(20, limiter.limit());
+    }
+
+    @Test
+    void should_back_off_on_dropped_requests_down_to_min_limit() {
+        var limiter = new AdaptiveLimiter(new Budget(20, 3, 100), 2.0, 0.2, 100);
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(FAST, true);
+        }
+
+        assertEquals(3, limiter.limit());
+    }
+
+    @Test
+    void should_keep_state_consistent_under_concurrent_releases() throws Exception {
+        var limiter = new AdaptiveLimiter(new Budget(64, 8, 512), 2.0, 0.2, 100);
+
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        if (limiter.tryAcquire()) {
+                            limiter.release(FAST, false);
+                        }
+                    }
+                });
+            }
+        }
+
+        assertEquals(0, limiter.inFlight());
+        assertTrue(limiter.limit() >= 8 && limiter.limit() <= 512);
+    }
+
+    private static void saturate(AdaptiveLimiter limiter, long rtt, int rounds) {
+        for (int i = 0; i < rounds; i++) {
+            var acquired = 0;
+            while (limiter.tryAcquire()) {
+                acquired++;
+            }
+            for (int j = 0; j < acquired; j++) {
+                limiter.release(rtt, false);
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package clear.solution.practisetest.controller.limit;
+
+import clear.solution.practisetest.config.UserLimitProperties;
+import clear.solution.practisetest.config.UserLimitProperties.Budget;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private ConcurrencyLimitFilter filter;
+
+
+    @BeforeEach
+    void setUp() {
+        filter = filter(true);
+    }
+
+    @Test
+    void should_shed_writes_over_limit_with_problem_detail() throws Exception {
+        var rejected = new MockHttpServletResponse();
+
+        filter.doFilter(request("POST", "/api/v1/users"), new MockHttpServletResponse(),
+                concurrently(filter, request("PATCH", "/api/v1/users/1"), rejected));
+
+        assertEquals(503, rejected.getStatus());
+        assertEquals("2", rejected.getHeader("Retry-After"));
+        assertEquals("application/problem+json", rejected.getContentType());
+        var problem = objectMapper.readTree(rejected.getContentAsByteArray());
+        assertEquals(503, problem.get("status").asInt());
+        assertEquals("/api/v1/users/1", problem.get("instance").asText());
+        assertEquals(1.0, rejections("write"));
+        assertEquals(0.0, rejections("read"));
+    }
+
+    @Test
+    void should_keep_read_budget_separate_from_writes() throws Exception {
+        var read = new MockHttpServletResponse();
+
+        filter.doFilter(request("PUT", "/api/v1/users/1"), new MockHttpServletResponse(),
+                concurrently(filter, request("GET", "/api/v1/users/1"), read));
+
+        assertEquals(200, read.getStatus());
+        assertEquals(0.0, rejections("read"));
+    }
+
+    @Test
+    void should_release_permit_after_request_completes() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            var response = new MockHttpServletResponse();
+            filter.doFilter(request("DELETE", "/api/v1/users/1"), response, new MockFilterChain());
+            assertEquals(200, response.getStatus());
+        }
+
+        assertEquals(0.0, meterRegistry.get("user.limit.in.flight").tag("budget", "write").gauge().value());
+        assertEquals(1.0, meterRegistry.get("user.limit.limit").tag("budget", "write").gauge().value());
+    }
+
+    @Test
+    void should_not_limit_other_paths_or_when_disabled() throws Exception {
+        var actuator = new MockHttpServletResponse();
+        filter.doFilter(request("POST", "/api/v1/users"), new MockHttpServletResponse(),
+                concurrently(filter, request("POST", "/actuator/health"), actuator));
+        assertEquals(200, actuator.getStatus());
+
+        var disabled = filter(false);
+        var write = new MockHttpServletResponse();
+        disabled.doFilter(request("POST", "/api/v1/users"), new MockHttpServletResponse(),
+                concurrently(disabled, request("POST", "/api/v1/users"), write));
+        assertEquals(200, write.getStatus());
+    }
+
+    @Test
+    void should_not_limit_streaming_and_bulk_paths() throws Exception {
+        for (var request : List.of(request("GET", "/api/v1/users/export"), request("POST", "/api/v1/users/import"),
+                request("POST", "/api/v1/users/batch"), request("POST", "/api/v1/users/delete"),
+                request("DELETE", "/api/v1/users"), request("PATCH", "/api/v1/users"))) {
+            var response = new MockHttpServletResponse();
+            filter.doFilter(request("POST", "/api/v1/users"), new MockHttpServletResponse(),
+                    concurrently(filter, request, response));
+            assertEquals(200, response.getStatus(), request.getMethod() + " " + request.getRequestURI());
+        }
+        assertEquals(0.0, rejections("write"));
+    }
+
+    private ConcurrencyLimitFilter filter(boolean enabled) {
+        var meters = enabled ? meterRegistry : new SimpleMeterRegistry();
+        return new ConcurrencyLimitFilter(new UserLimitProperties(enabled, new Budget(1, 1, 1), new Budget(1, 1, 1),
+                2.0, 0.2, 100, Duration.ofSeconds(2)), objectMapper, meters);
+    }
+
+    private double rejections(String budget) {
+        return meterRegistry.get("user.limit.rejections").tag("budget", budget).counter().count();
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        return new MockHttpServletRequest(method, uri);
+    }
+
+    private static FilterChain concurrently(ConcurrencyLimitFilter filter,
+                                            MockHttpServletRequest request,
+                                            MockHttpServletResponse response) {
+        return (req, res) -> filter.doFilter(request, response, new MockFilterChain());
+    }
+}
@@ -0,0 +1,118 @@
+package clear.solution.practisetest.dto.json;
+
+import clear.solution.practisetest.dto.AddressDTO;
+import clear.solution.practisetest.dto.UserBatchDTO;
+import clear.solution.practisetest.dto.UserDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static com.fasterxml.jackson.databind.SerializationFeature.WRITE_DATES_AS_TIMESTAMPS;
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserJsonComponentTest {
+
+    private static final String ALPHABET = "aZ09 _-.@\"\\/\n\té€😀\u0001";
+
+    private final ObjectMapper databind = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final ObjectMapper fastPath = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(WRITE_DATES_AS_TIMESTAMPS)
+            .modulesToInstall(new SimpleModule()
+                    .addSerializer(new UserJsonComponent.UserSerializer())
+                    .addSerializer(new UserJsonComponent.AddressSerializer())
+                    .addDeserializer(UserDTO.class, new UserJsonComponent.UserDeserializer())
+                    .addDeserializer(AddressDTO.class, new UserJsonComponent.AddressDeserializer()))
+            .build();
+    private final Random random = new Random(42);
+
+
+    @Test
+    void should_write_same_json_as_databind() throws Exception {
+        for (int i = 0; i < 5_000; i++) {
+            var dto = randomUser();
+            var json = databind.writeValueAsString(dto);
+
+            assertEquals(json, fastPath.writeValueAsString(dto));
+            assertEquals(databind.readValue(json, UserDTO.class), fastPath.readValue(json, UserDTO.class));
+        }
+
+        var page = IntStream.range(0, 100).mapToObj(i -> randomUser()).toList();
+        assertEquals(databind.writeValueAsString(page), fastPath.writeValueAsString(page));
+    }
+
+    @Test
+    void should_read_same_values_as_databind() throws Exception {
+        var samples = List.of(
+                "{}",
+                "{\"id\":5,\"email\":\" user@example.com \",\"unknown\":{\"a\":[1,2]},\"birthDate\":\"1990-05-15\"}",
+                "{\"firstName\":12,\"lastName\":true,\"phoneNumber\":1.5,\"address\":null}",
+                "{\"birthDate\":\"\",\"address\":{}}",
+                "{\"birthDate\":[1990,5,15],\"address\":{\"city\":\" Kyiv \",\"extra\":1}}",
+                "{\"birthDate\":null,\"email\":null}");
+
+        for (var json : samples) {
+            assertEquals(databind.readValue(json, UserDTO.class), fastPath.readValue(json, UserDTO.class), json);
+        }
+
+        var batch = "{\"users\":[" + String.join(",", samples) + "]}";
+        assertEquals(databind.readValue(batch, UserBatchDTO.class), fastPath.readValue(batch, UserBatchDTO.class));
+        assertEquals(databind.readValue("[null]", new TypeReference<List<UserDTO>>() {}),
+                fastPath.readValue("[null]", new TypeReference<List<UserDTO>>() {}));
+    }
+
+    @Test
+    void should_reject_same_input_as_databind() {
+        var samples = List.of(
+                "{\"birthDate\":\"1990-02-30\"}",
+                "{\"birthDate\":\"15.05.1990\"}",
+                "{\"email\":{\"a\":1}}",
+                "{\"address\":[]}",
+                "[]");
+
+        for (var json : samples) {
+            var expected = assertThrows(MismatchedInputException.class, () -> databind.readValue(json, UserDTO.class));
+            var actual = assertThrows(MismatchedInputException.class, () -> fastPath.readValue(json, UserDTO.class));
+            assertEquals(expected.getClass(), actual.getClass(), json);
+        }
+    }
+
+    @Test
+    void should_switch_back_to_databind_when_disabled() {
+        var runner = new ApplicationContextRunner().withUserConfiguration(UserJsonComponent.class);
+
+        runner.run(context -> assertEquals(1, context.getBeanNamesForType(UserJsonComponent.class).length));
+        runner.withPropertyValues("user.json.fast-path=false")
+                .run(context -> assertEquals(0, context.getBeanNamesForType(UserJsonComponent.class).length));
+    }
+
+    private UserDTO randomUser() {
+        return new UserDTO(random.nextBoolean() ? null : random.nextLong(),
+                randomText(), randomText(), randomText(),
+                random.nextInt(5) == 0 ? null : LocalDate.ofEpochDay(random.nextInt(-800_000, 3_000_000)),
+                random.nextInt(3) == 0 ? null : new AddressDTO(randomText(), randomText(), randomText(),
+                        randomText(), randomText(), randomText()),
+                randomText());
+    }
+
+    private String randomText() {
+        if (random.nextInt(5) == 0) return null;
+        var text = new StringBuilder();
+        var length = random.nextInt(20);
+        while (text.length() < length) {
+            text.appendCodePoint(ALPHABET.codePointAt(ALPHABET.offsetByCodePoints(0,
+                    random.nextInt(ALPHABET.codePointCount(0, ALPHABET.length())))));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,57 @@
+package clear.solution.practisetest.dto.mapper;
+
+import clear.solution.practisetest.dto.AddressDTO;
+import clear.solution.practisetest.dto.UserDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserCsvMapperTest {
+
+    private final UserCsvMapper mapper = new UserCsvMapper();
+
+    @Test
+    void should_map_to_csv() {
+        var dto = new UserDTO(
+                1L, "test", "name", "surname",
+                LocalDate.of(1, 1, 1),
+                new AddressDTO("city", "country", null, null, null, null),
+                "1234567890");
+
+        var actual = mapper.toCsv(dto);
+
+        assertEquals("1,test,name,surname,0001-01-01,1234567890,city,country,,,,", actual);
+    }
+
+    @Test
+    void should_quote_special_characters() {
+        var dto = new UserDTO(
+                1L, "test", "na,me", "sur\"name",
+                null, null, null);
+
+        var actual = mapper.toCsv(dto);
+
+        assertEquals("1,test,\"na,me\",\"sur\"\"name\",,,,,,,,", actual);
+    }
+
+    @Test
+    void should_map_from_csv() {
+        var expected = new UserDTO(
+                null, "test", "na,me", "sur\"name",
+                LocalDate.of(1, 1, 1),
+                new AddressDTO("city", null, null, null, null, null),
+                null);
+
+        var actual = mapper.fromCsv("1,test,\"na,me\",\"sur\"\"name\",0001-01-01,,city,,,,,");
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void should_throw_if_columns_missing_when_map_from_csv() {
+        assertThrows(IllegalArgumentException.class, () -> mapper.fromCsv("1,test"));
+        assertThrows(IllegalArgumentException.class, () -> mapper.fromCsv(",test,a,b,not a date,,,,,,,"));
+    }
+}
@@ -4,6 +4,7 @@ import clear.solution.practisetest.dto.AddressDTO;
 import clear.solution.practisetest.dto.UserDTO;
 import clear.solution.practisetest.model.Address;
 import clear.solution.practisetest.model.User;
+import clear.solution.practisetest.repository.UserView;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
@@ -34,6 +35,32 @@ class UserMapperTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    void should_map_view_to_dto() {
+        var view = new UserView(1L, "test", "name", "surname", LocalDate.of(1, 1, 1),
+                "city", "country", null, null, null, null, "1234567890", 3L);
+        var expected = new UserDTO(
+                1L, "test", "name", "surname",
+                LocalDate.of(1, 1, 1),
+                new AddressDTO("city", "country", null, null, null, null),
+                "1234567890", 3L);
+
+        var actual = userMapper.toDTO(view);
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void should_map_view_without_address_to_dto_without_address() {
+        var view = new UserView(1L, "test", "name", "surname", LocalDate.of(1, 1, 1),
+                null, null, null, null, null, null, null, 0L);
+
+        var actual = userMapper.toDTO(view);
+
+        assertNull(actual.address());
+        assertNull(userMapper.toDTO((UserView) null));
+    }
+
     @Test
     void should_map_to_entity() {
         var dto = new UserDTO(
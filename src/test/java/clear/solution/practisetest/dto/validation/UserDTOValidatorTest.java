@@ -0,0 +1,149 @@
+package clear.solution.practisetest.dto.validation;
+
+import clear.solution.practisetest.dto.AddressDTO;
+import clear.solution.practisetest.dto.UserBatchDTO;
+import clear.solution.practisetest.dto.UserDTO;
+import clear.solution.practisetest.dto.validation.Groups.Create;
+import clear.solution.practisetest.dto.validation.Groups.FullUpdate;
+import clear.solution.practisetest.dto.validation.Groups.PartialUpdate;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.groups.Default;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserDTOValidatorTest {
+
+    private static final Pattern EMAIL = Pattern.compile("^[\\w-\\.]+@([\\w-]+\\.)+[\\w-]{2,4}$");
+    private static final String ALPHABET = "aZ09_-.@ \té!";
+    private static final List<Class<?>> GROUPS = List.of(Create.class, FullUpdate.class, PartialUpdate.class);
+
+    private final Validator hibernate = Validation.buildDefaultValidatorFactory().getValidator();
+    private final UserDTOValidator validator = new UserDTOValidator(hibernate);
+    private final Random random = new Random(42);
+
+
+    @Test
+    void should_match_email_pattern() {
+        var samples = new ArrayList<>(List.of("user@example.com", "a.b-c_d@sub.example.info", "a@b.cc",
+                "a@b.ccccc", "a@b.c", "a@.com", "a@b..com", "@b.com", "a@b.com.", "a@bcom", "a@@b.com", "",
+                "a b@c.com", "é@b.com", "a@b.c-", ".@-.--", "a@b_c.d_"));
+        for (int i = 0; i < 100_000; i++) {
+            samples.add(randomString(12));
+        }
+
+        samples.forEach(email -> assertEquals(EMAIL.matcher(email).matches(), EmailScanner.isValid(email), email));
+    }
+
+    @Test
+    void should_scan_hostile_email_in_linear_time() {
+        var hostile = "a".repeat(64) + "@" + "a.".repeat(500_000) + "!";
+
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> assertFalse(EmailScanner.isValid(hostile)));
+    }
+
+    @Test
+    void should_report_same_violations_as_bean_validation() {
+        for (int i = 0; i < 20_000; i++) {
+            var dto = randomUser();
+            for (var group : GROUPS) {
+                assertEquals(hibernate(dto, group), compiled(dto, group), () -> dto + " in " + group.getSimpleName());
+            }
+        }
+    }
+
+    @Test
+    void should_report_same_field_errors_as_bean_validation_for_batch() {
+        var batch = new UserBatchDTO(List.of(randomUser(), randomUser(), randomUser()));
+        var empty = new UserBatchDTO(List.of());
+        var tooLarge = new UserBatchDTO(Collections.nCopies(1001, null));
+
+        for (var dto : List.of(batch, empty, tooLarge, new UserBatchDTO(null))) {
+            var expected = new BeanPropertyBindingResult(dto, "userBatchDTO");
+            new SpringValidatorAdapter(hibernate).validate(dto, expected, Create.class);
+            var actual = new BeanPropertyBindingResult(dto, "userBatchDTO");
+            validator.validate(dto, actual, Create.class);
+
+            assertEquals(fieldErrors(expected.getFieldErrors()), fieldErrors(actual.getFieldErrors()));
+        }
+    }
+
+    @Test
+    void should_fall_back_to_bean_validation_for_unknown_groups() {
+        var dto = new UserDTO(null, "", "", "", null, null, null);
+        var errors = new BeanPropertyBindingResult(dto, "userDTO");
+
+        validator.validate(dto, errors, Default.class);
+
+        assertFalse(errors.hasErrors());
+        assertThrows(IllegalArgumentException.class, () -> validator.validate(dto, Object.class, (f, c, m, v) -> {
+        }));
+    }
+
+    private Set<String> hibernate(UserDTO dto, Class<?> group) {
+        return hibernate.validate(dto, group).stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .collect(Collectors.toSet());
+    }
+
+    private Set<String> compiled(UserDTO dto, Class<?> group) {
+        var errors = new HashSet<String>();
+        validator.validate(dto, group, (field, code, message, value) -> assertTrue(errors.add(field + ": " + message)));
+        return errors;
+    }
+
+    private static Set<String> fieldErrors(List<FieldError> errors) {
+        return errors.stream()
+                .map(e -> e.getField() + ": " + e.getDefaultMessage() + ": " + e.getCode())
+                .collect(Collectors.toSet());
+    }
+
+    private UserDTO randomUser() {
+        return new UserDTO(null,
+                random.nextInt(4) == 0 ? randomString(330) : randomEmail(),
+                randomText(32), randomText(32), randomDate(),
+                random.nextInt(3) == 0 ? null : new AddressDTO(randomText(52), randomText(52),
+                        randomText(12), randomText(52), randomText(52), randomText(52)),
+                randomText(14));
+    }
+
+    private String randomEmail() {
+        return switch (random.nextInt(4)) {
+            case 0 -> null;
+            case 1 -> randomString(6) + "@" + randomString(4) + "." + randomString(3);
+            case 2 -> "user" + random.nextInt(100) + "@example.com";
+            default -> randomString(random.nextInt(8));
+        };
+    }
+
+    private String randomText(int maxLength) {
+        return random.nextInt(5) == 0 ? null : randomString(random.nextInt(maxLength + 1));
+    }
+
+    private String randomString(int length) {
+        var chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+        }
+        return new String(chars);
+    }
+
+    private LocalDate randomDate() {
+        return random.nextInt(5) == 0 ? null : LocalDate.now().plusDays(random.nextInt(5) - 3);
+    }
+}
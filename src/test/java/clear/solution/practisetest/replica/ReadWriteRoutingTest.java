@@ -0,0 +1,83 @@
+package clear.solution.practisetest.replica;
+
+import clear.solution.practisetest.dto.UserDTO;
+import clear.solution.practisetest.exception.ResourceNotFoundException;
+import clear.solution.practisetest.service.UserService;
+import clear.solution.practisetest.support.ReplicationStandIn;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.jpa.open-in-view=false",
+        "user.cache.enabled=false",
+        "user.replica.enabled=true",
+        "user.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "user.replica.username=root",
+        "user.replica.password=root"
+})
+class ReadWriteRoutingTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private HikariDataSource replicaDataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ReplicationStandIn replication;
+
+
+    @BeforeEach
+    void setUp() {
+        replication = new ReplicationStandIn(primaryDataSource, replicaDataSource);
+        replication.sync();
+    }
+
+    @Test
+    void should_route_reads_to_replica_and_writes_to_primary() {
+        assertInstanceOf(LazyConnectionDataSourceProxy.class, dataSource);
+        var before = replicaReads();
+
+        var created = userService.create(user("routed@example.com"));
+
+        assertThrows(ResourceNotFoundException.class, () -> userService.getById(created.id()));
+        replication.sync();
+        assertEquals("routed@example.com", userService.getById(created.id()).email());
+        assertTrue(replicaReads() >= before + 2);
+    }
+
+    @Test
+    void should_read_own_writes_within_scope() {
+        try (var scope = ReadYourWrites.open()) {
+            var created = userService.create(user("sticky@example.com"));
+
+            assertEquals("sticky@example.com", userService.getById(created.id()).email());
+        }
+    }
+
+    private double replicaReads() {
+        return meterRegistry.get("user.replica.reads").tag("target", "replica").counter().count();
+    }
+
+    private static UserDTO user(String email) {
+        return new UserDTO(null, email, "John", "Doe", LocalDate.of(1990, 5, 15), null, "123456789012");
+    }
+}
@@ -0,0 +1,125 @@
+package clear.solution.practisetest.replica;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ReplicaRoutingDataSource dataSource;
+
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        when(replicaConnection.isValid(anyInt())).thenReturn(true);
+        dataSource = new ReplicaRoutingDataSource(primary, replica,
+                Duration.ofHours(1), Duration.ofSeconds(1), 2, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void should_read_from_replica_when_healthy() throws SQLException {
+        assertSame(replicaConnection, dataSource.getConnection());
+        assertEquals(1, reads("replica", "replica"));
+    }
+
+    @Test
+    void should_count_replica_reads_per_thread() throws SQLException {
+        var mark = ReplicaReads.mark();
+        try (var scope = ReadYourWrites.open()) {
+            ReadYourWrites.wrote();
+            dataSource.getConnection();
+        }
+        assertFalse(ReplicaReads.servedSince(mark));
+
+        dataSource.getConnection();
+        assertTrue(ReplicaReads.servedSince(mark));
+    }
+
+    @Test
+    void should_read_from_primary_after_write_in_same_scope() throws SQLException {
+        try (var scope = ReadYourWrites.open()) {
+            assertSame(replicaConnection, dataSource.getConnection());
+            ReadYourWrites.wrote();
+            assertSame(primaryConnection, dataSource.getConnection());
+        }
+        assertSame(replicaConnection, dataSource.getConnection());
+        assertEquals(1, reads("primary", "sticky"));
+    }
+
+    @Test
+    void should_fall_back_to_primary_when_replica_connection_fails() throws SQLException {
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertFalse(dataSource.isUp());
+        assertSame(primaryConnection, dataSource.getConnection());
+        verify(replica, times(1)).getConnection();
+        assertEquals(1, reads("primary", "fallback"));
+        assertEquals(1, reads("primary", "replica_down"));
+        assertEquals(0, meterRegistry.get("user.replica.up").gauge().value());
+    }
+
+    @Test
+    void should_route_connections_with_credentials() throws SQLException {
+        when(replica.getConnection("reader", "secret")).thenReturn(replicaConnection);
+        when(primary.getConnection("reader", "secret")).thenReturn(primaryConnection);
+
+        assertSame(replicaConnection, dataSource.getConnection("reader", "secret"));
+        try (var scope = ReadYourWrites.open()) {
+            ReadYourWrites.wrote();
+            assertSame(primaryConnection, dataSource.getConnection("reader", "secret"));
+        }
+    }
+
+    @Test
+    void should_not_mark_replica_down_when_credentials_are_not_supported() throws SQLException {
+        when(replica.getConnection("reader", "secret")).thenThrow(new SQLFeatureNotSupportedException());
+
+        assertThrows(SQLFeatureNotSupportedException.class, () -> dataSource.getConnection("reader", "secret"));
+        assertTrue(dataSource.isUp());
+    }
+
+    @Test
+    void should_mark_replica_down_after_consecutive_probe_failures_and_recover() throws SQLException {
+        when(replicaConnection.isValid(anyInt())).thenReturn(false, false, true);
+
+        dataSource.probe();
+        assertTrue(dataSource.isUp());
+        dataSource.probe();
+        assertFalse(dataSource.isUp());
+        assertSame(primaryConnection, dataSource.getConnection());
+
+        dataSource.probe();
+        assertTrue(dataSource.isUp());
+        assertSame(replicaConnection, dataSource.getConnection());
+        assertEquals(2, meterRegistry.get("user.replica.probe.failures").counter().count());
+    }
+
+    private double reads(String target, String reason) {
+        return meterRegistry.get("user.replica.reads").tag("target", target).tag("reason", reason).counter().count();
+    }
+}
@@ -0,0 +1,115 @@
+package clear.solution.practisetest.repository;
+
+import clear.solution.practisetest.dto.UserDTO;
+import clear.solution.practisetest.dto.mapper.UserMapper;
+import clear.solution.practisetest.model.Address;
+import clear.solution.practisetest.model.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:read-path-benchmark",
+        "logging.level.clear.solution.practisetest=warn"
+})
+class UserReadPathBenchmark {
+
+    private static final int USERS = Integer.getInteger("benchmark.users", 10_000);
+    private static final int PAGE_SIZE = Integer.getInteger("benchmark.page-size", 100);
+    private static final int ROUNDS = Integer.getInteger("benchmark.rounds", 20);
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private UserMapper mapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+
+    @Test
+    void compare_entity_and_projection_pages() {
+        userRepo.saveAll(IntStream.range(0, USERS)
+                .mapToObj(i -> User.builder()
+                        .email("read%d@example.com".formatted(i))
+                        .firstName("John")
+                        .lastName("Doe")
+                        .birthDate(LocalDate.of(1950, 1, 1).plusDays(i % 20_000))
+                        .address(new Address("City", "Country", "12345", "State", "Street", "1"))
+                        .phoneNumber("123456789012")
+                        .build())
+                .toList());
+
+        var transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        Function<Pageable, Slice<UserDTO>> entities =
+                pageable -> new SliceImpl<>(entityManager.createQuery("select u from User u order by u.id", User.class)
+                        .setFirstResult((int) pageable.getOffset())
+                        .setMaxResults(pageable.getPageSize())
+                        .getResultStream()
+                        .map(mapper::toDTO)
+                        .toList());
+        Function<Pageable, Slice<UserDTO>> views =
+                pageable -> userRepo.findAllViews(pageable).map(mapper::toDTO);
+
+        var first = PageRequest.of(0, PAGE_SIZE, Sort.by("id"));
+        List<UserDTO> expected = transaction.execute(status -> entities.apply(first).getContent());
+        List<UserDTO> actual = transaction.execute(status -> views.apply(first).getContent());
+        assertEquals(expected, actual);
+
+        run("entity", transaction, entities);
+        run("projection", transaction, views);
+        var entity = run("entity", transaction, entities);
+        var projection = run("projection", transaction, views);
+
+        System.out.printf("%n%-12s %14s %16s%n", "path", "ms/page", "KB alloc/page");
+        System.out.printf("%-12s %14.3f %16.1f%n", "entity", entity.millis(), entity.kilobytes());
+        System.out.printf("%-12s %14.3f %16.1f%n", "projection", projection.millis(), projection.kilobytes());
+        System.out.printf("allocation drop: %.1f%%, latency drop: %.1f%%%n",
+                100 * (1 - projection.kilobytes() / entity.kilobytes()),
+                100 * (1 - projection.millis() / entity.millis()));
+    }
+
+    private Result run(String path, TransactionTemplate transaction, Function<Pageable, Slice<UserDTO>> reader) {
+        var pages = USERS / PAGE_SIZE;
+        var thread = Thread.currentThread().threadId();
+        var bytes = THREADS.getThreadAllocatedBytes(thread);
+        var start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int page = 0; page < pages; page++) {
+                var pageable = PageRequest.of(page, PAGE_SIZE, Sort.by("id"));
+                var size = transaction.execute(status -> reader.apply(pageable).getNumberOfElements());
+                assertEquals(PAGE_SIZE, (int) size, path);
+            }
+        }
+        var total = (double) ROUNDS * pages;
+        return new Result((System.nanoTime() - start) / 1e6 / total,
+                (THREADS.getThreadAllocatedBytes(thread) - bytes) / 1024.0 / total);
+    }
+
+    private record Result(double millis, double kilobytes) {
+    }
+}
@@ -0,0 +1,113 @@
+package clear.solution.practisetest.repository;
+
+import clear.solution.practisetest.support.SqlCaptor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = SqlCaptor.PROPERTY)
+class UserRepositoryQueryPlanTest {
+
+    private static final LocalDate FROM = LocalDate.of(1990, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2000, 1, 1);
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+
+    @Test
+    void should_use_birth_date_index_for_range_view_page() {
+        var plan = plan(() -> userRepo.findAllViewsByBirthDateBetween(FROM, TO, PageRequest.of(1, 10)));
+
+        assertIndex("USERS_BIRTH_DATE_ID_IDX", plan);
+    }
+
+    @Test
+    void should_use_primary_key_for_view_by_id() {
+        assertIndex("PRIMARY_KEY", plan(() -> userRepo.findViewById(1L)));
+    }
+
+    @Test
+    void should_use_birth_date_index_for_range_count() {
+        var plan = plan(() -> userRepo.countByBirthDateBetween(FROM, TO));
+
+        assertIndex("USERS_BIRTH_DATE_ID_IDX", plan);
+    }
+
+    @Test
+    void should_use_sorted_birth_date_index_for_range_keyset() {
+        var position = ScrollPosition.forward(Map.of("birthDate", FROM, "id", 1L));
+        var plan = plan(() -> userRepo.findAllByBirthDateBetweenOrderByBirthDateAscIdAsc(
+                FROM, TO, position, Limit.of(10)));
+
+        assertIndex("USERS_BIRTH_DATE_ID_IDX", plan);
+        assertSorted(plan);
+    }
+
+    @Test
+    void should_use_sorted_primary_key_for_id_keyset() {
+        var plan = plan(() -> userRepo.findAllByOrderByIdAsc(
+                ScrollPosition.forward(Map.of("id", 1L)), Limit.of(10)));
+
+        assertIndex("PRIMARY_KEY", plan);
+        assertSorted(plan);
+    }
+
+    @Test
+    void should_use_sorted_primary_key_for_stream() {
+        var plan = plan(() -> {
+            try (var users = userRepo.streamAll()) {
+                users.findFirst();
+            }
+        });
+
+        assertIndex("PRIMARY_KEY", plan);
+        assertSorted(plan);
+    }
+
+    @Test
+    void should_use_email_index_for_email_lookups() {
+        assertIndex("USERS_EMAIL_UK", plan(() -> userRepo.existsByEmail("user@example.com")));
+        assertIndex("USERS_EMAIL_UK", plan(() -> userRepo.findExistingEmails(
+                List.of("user1@example.com", "user2@example.com"))));
+    }
+
+    private String plan(Runnable query) {
+        SqlCaptor.clear();
+        query.run();
+        var statements = SqlCaptor.statements();
+        assertFalse(statements.isEmpty(), "Query issued no SQL");
+        return explain(statements.get(statements.size() - 1));
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.query("explain " + sql, statement -> {
+            var parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setObject(i, null);
+            }
+        }, (rs, row) -> rs.getString(1)).get(0);
+    }
+
+    private static void assertIndex(String index, String plan) {
+        assertTrue(plan.contains(index), () -> "Expected index " + index + " in plan:\n" + plan);
+        assertFalse(plan.contains("tableScan"), () -> "Unexpected table scan in plan:\n" + plan);
+    }
+
+    private static void assertSorted(String plan) {
+        assertTrue(plan.contains("index sorted"), () -> "Expected order from index in plan:\n" + plan);
+    }
+}
@@ -0,0 +1,99 @@
+package clear.solution.practisetest.repository;
+
+import clear.solution.practisetest.model.Address;
+import clear.solution.practisetest.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepo;
+
+    private List<User> users;
+
+
+    @BeforeEach
+    void setUp() {
+        users = userRepo.saveAll(IntStream.range(0, 5)
+                .mapToObj(i -> User.builder()
+                        .email("user%d@example.com".formatted(i))
+                        .firstName("John")
+                        .lastName("Doe")
+                        .birthDate(LocalDate.of(2000, 1, 5 - i))
+                        .build())
+                .toList());
+    }
+
+    @Test
+    void should_scroll_by_id() {
+        var seen = new ArrayList<User>();
+        var window = userRepo.findAllByOrderByIdAsc(ScrollPosition.keyset(), Limit.of(2));
+        seen.addAll(window.getContent());
+        while (window.hasNext()) {
+            window = userRepo.findAllByOrderByIdAsc(window.positionAt(window.size() - 1), Limit.of(2));
+            seen.addAll(window.getContent());
+        }
+
+        assertEquals(users, seen);
+    }
+
+    @Test
+    void should_scroll_by_birth_date() {
+        var from = LocalDate.of(2000, 1, 2);
+        var to = LocalDate.of(2000, 1, 4);
+
+        var first = userRepo.findAllByBirthDateBetweenOrderByBirthDateAscIdAsc(
+                from, to, ScrollPosition.keyset(), Limit.of(2));
+        var second = userRepo.findAllByBirthDateBetweenOrderByBirthDateAscIdAsc(
+                from, to, first.positionAt(first.size() - 1), Limit.of(2));
+
+        assertEquals(List.of(users.get(3), users.get(2)), first.getContent());
+        assertTrue(first.hasNext());
+        assertEquals(List.of(users.get(1)), second.getContent());
+        assertFalse(second.hasNext());
+        assertEquals(3, userRepo.countByBirthDateBetween(from, to));
+    }
+
+    @Test
+    void should_read_views_matching_entities() {
+        users.get(0).setAddress(new Address("City", "Country", "12345", null, "Street", "1"));
+        users.get(0).setPhoneNumber("123456789012");
+        userRepo.flush();
+        var pageable = PageRequest.of(0, 10, Sort.by("id"));
+        var from = LocalDate.of(2000, 1, 2);
+        var to = LocalDate.of(2000, 1, 5);
+
+        assertEquals(users.stream().map(UserRepositoryTest::view).toList(),
+                userRepo.findAllViews(pageable).getContent());
+        assertEquals(users.stream()
+                        .filter(user -> !user.getBirthDate().isBefore(from) && !user.getBirthDate().isAfter(to))
+                        .map(UserRepositoryTest::view)
+                        .toList(),
+                userRepo.findAllViewsByBirthDateBetween(from, to, pageable).getContent());
+        assertEquals(view(users.get(0)), userRepo.findViewById(users.get(0).getId()).orElseThrow());
+        assertTrue(userRepo.findViewById(-1L).isEmpty());
+    }
+
+    private static UserView view(User user) {
+        var address = user.getAddress() == null ? new Address() : user.getAddress();
+        return new UserView(user.getId(), user.getEmail(), user.getFirstName(), user.getLastName(),
+                user.getBirthDate(), address.getCity(), address.getCountry(), address.getPostCode(),
+                address.getState(), address.getStreetName(), address.getStreetNumber(), user.getPhoneNumber(),
+                user.getVersion());
+    }
+}
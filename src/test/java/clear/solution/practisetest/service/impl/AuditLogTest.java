@@ -0,0 +1,99 @@
+package clear.solution.practisetest.service.impl;
+
+import clear.solution.practisetest.config.UserAuditProperties;
+import clear.solution.practisetest.model.User;
+import clear.solution.practisetest.service.impl.AuditEvent.Operation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditLogTest {
+
+    @TempDir
+    private Path directory;
+
+
+    @Test
+    void should_write_masked_events_in_background() throws IOException {
+        var auditLog = auditLog(8, 1.0, DataSize.ofMegabytes(1));
+        auditLog.start();
+
+        auditLog.record(Operation.PARTIAL_UPDATE, user(1L), List.of("firstName"), System.nanoTime());
+        auditLog.stop();
+
+        var lines = Files.readAllLines(directory.resolve(AuditLog.FILE_NAME));
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).contains("\"operation\":\"partial_update\""), lines.get(0));
+        assertTrue(lines.get(0).contains("\"id\":1"), lines.get(0));
+        assertTrue(lines.get(0).contains("\"subject\":\"j***@example.com\""), lines.get(0));
+        assertTrue(lines.get(0).contains("\"changed\":[\"firstName\"]"), lines.get(0));
+        assertFalse(lines.get(0).contains("john"), lines.get(0));
+    }
+
+    @Test
+    void should_count_dropped_events_when_buffer_is_full() {
+        var auditLog = auditLog(2, 1.0, DataSize.ofMegabytes(1));
+
+        for (long i = 0; i < 5; i++) {
+            auditLog.record(Operation.CREATE, user(i), List.of(), System.nanoTime());
+        }
+
+        assertEquals(3, auditLog.dropped());
+    }
+
+    @Test
+    void should_skip_events_not_sampled() {
+        var registry = new SimpleMeterRegistry();
+        var auditLog = new AuditLog(properties(8, 0.0, DataSize.ofMegabytes(1)), registry);
+
+        auditLog.record(Operation.CREATE, user(1L), List.of(), System.nanoTime());
+
+        assertEquals(1, registry.get("user.audit.events").tag("result", "sampled_out").counter().count());
+        assertEquals(0, auditLog.dropped());
+    }
+
+    @Test
+    void should_roll_files_when_size_exceeded() throws IOException {
+        var auditLog = auditLog(1024, 1.0, DataSize.ofBytes(100));
+        auditLog.start();
+
+        for (long i = 0; i < 10; i++) {
+            auditLog.record(Operation.DELETE, user(i), List.of(), System.nanoTime());
+        }
+        auditLog.stop();
+
+        assertTrue(Files.exists(directory.resolve("audit.1.log")));
+        try (var files = Files.list(directory)) {
+            assertTrue(files.count() <= 3);
+        }
+    }
+
+    @Test
+    void should_mask_emails() {
+        assertEquals("j***@example.com", AuditLog.mask("john.doe@example.com"));
+        assertEquals("***", AuditLog.mask("not-an-email"));
+        assertNull(AuditLog.mask(null));
+    }
+
+    private AuditLog auditLog(int capacity, double sampleRate, DataSize maxFileSize) {
+        return new AuditLog(properties(capacity, sampleRate, maxFileSize), new SimpleMeterRegistry());
+    }
+
+    private UserAuditProperties properties(int capacity, double sampleRate, DataSize maxFileSize) {
+        return new UserAuditProperties(true, capacity, 4, Duration.ofMillis(10), sampleRate,
+                directory, maxFileSize, 2);
+    }
+
+    private static User user(Long id) {
+        return User.builder().id(id).email("john.doe@example.com").build();
+    }
+}
@@ -0,0 +1,62 @@
+package clear.solution.practisetest.service.impl;
+
+import clear.solution.practisetest.service.impl.AuditEvent.Operation;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditRingBufferTest {
+
+    @Test
+    void should_round_capacity_to_power_of_two_and_reject_when_full() {
+        var buffer = new AuditRingBuffer(3);
+
+        assertEquals(4, buffer.capacity());
+        IntStream.range(0, 4).forEach(i -> assertTrue(buffer.offer(event(i))));
+        assertFalse(buffer.offer(event(4)));
+
+        var batch = new ArrayList<AuditEvent>();
+        assertEquals(2, buffer.drain(batch, 2));
+        assertTrue(buffer.offer(event(5)));
+        assertEquals(3, buffer.drain(batch, 10));
+        assertEquals(List.of(0L, 1L, 2L, 3L, 5L), batch.stream().map(AuditEvent::id).toList());
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void should_deliver_every_accepted_event_once_with_concurrent_producers() throws Exception {
+        var buffer = new AuditRingBuffer(1024);
+        var accepted = new AtomicInteger();
+        var drained = new ArrayList<AuditEvent>();
+        try (var producers = Executors.newFixedThreadPool(4)) {
+            for (int p = 0; p < 4; p++) {
+                var offset = p * 10_000;
+                producers.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        if (buffer.offer(event(offset + i))) accepted.incrementAndGet();
+                    }
+                });
+            }
+            producers.shutdown();
+            while (!producers.isTerminated()) {
+                buffer.drain(drained, 256);
+            }
+        }
+        while (buffer.drain(drained, 256) > 0) {
+        }
+
+        assertEquals(accepted.get(), drained.size());
+        assertEquals(drained.size(), new HashSet<>(drained.stream().map(AuditEvent::id).toList()).size());
+    }
+
+    private static AuditEvent event(long id) {
+        return new AuditEvent(0, Operation.CREATE, id, null, List.of(), 0);
+    }
+}
@@ -0,0 +1,91 @@
+package clear.solution.practisetest.service.impl;
+
+import clear.solution.practisetest.config.EmailIndexProperties;
+import clear.solution.practisetest.repository.UserRepository;
+import clear.solution.practisetest.sharding.ShardContext;
+import clear.solution.practisetest.sharding.ShardRoutingDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class EmailIndexTest {
+
+    private final UserRepository userRepo = mock(UserRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+
+
+    @Test
+    void should_answer_maybe_until_warmed() {
+        var index = index(true);
+
+        assertTrue(index.mightContain("user@example.com"));
+        assertFalse(index.mightContain(null));
+    }
+
+    @Test
+    void should_not_have_false_negatives() {
+        when(userRepo.streamAllEmails()).thenReturn(IntStream.range(0, 5_000)
+                .mapToObj("user%d@example.com"::formatted));
+        var index = index(true);
+
+        index.warmUp();
+        index.add("New@Example.com ");
+
+        IntStream.range(0, 5_000).forEach(i -> assertTrue(index.mightContain("user%d@example.com".formatted(i))));
+        assertTrue(index.mightContain("new@example.com"));
+
+        var falsePositives = IntStream.range(0, 10_000)
+                .filter(i -> index.mightContain("other%d@example.com".formatted(i)))
+                .count();
+        assertTrue(falsePositives < 500, "False positives: " + falsePositives);
+    }
+
+    @Test
+    void should_warm_from_every_shard() {
+        when(userRepo.streamAllEmails()).thenAnswer(invocation -> Stream.of(
+                "shard%d@example.com".formatted(ShardContext.current())));
+        var index = index(true, new ShardRoutingDataSource(List.of(mock(DataSource.class), mock(DataSource.class))));
+
+        index.warmUp();
+
+        verify(userRepo, times(2)).streamAllEmails();
+        assertTrue(index.mightContain("shard0@example.com"));
+        assertTrue(index.mightContain("shard1@example.com"));
+    }
+
+    @Test
+    void should_always_answer_maybe_when_disabled() {
+        var index = index(false);
+
+        index.warmUp();
+
+        verify(userRepo, never()).streamAllEmails();
+        assertTrue(index.mightContain("user@example.com"));
+    }
+
+    private EmailIndex index(boolean enabled) {
+        return index(enabled, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private EmailIndex index(boolean enabled, ShardRoutingDataSource shardRouting) {
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        ObjectProvider<ShardRoutingDataSource> shards = mock(ObjectProvider.class);
+        when(shards.getIfAvailable()).thenReturn(shardRouting);
+        return new EmailIndex(userRepo, transactionTemplate, shards, new EmailIndexProperties(enabled, 10_000L, 0.01));
+    }
+}
@@ -0,0 +1,61 @@
+package clear.solution.practisetest.service.impl;
+
+import clear.solution.practisetest.dto.UserBatchResultDTO;
+import clear.solution.practisetest.dto.UserBatchResultDTO.Status;
+import clear.solution.practisetest.dto.UserDTO;
+import clear.solution.practisetest.repository.UserRepository;
+import clear.solution.practisetest.service.UserService;
+import clear.solution.practisetest.sharding.EmailClaims;
+import clear.solution.practisetest.sharding.ShardContext;
+import clear.solution.practisetest.sharding.ShardRoutingDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ShardedUserServiceBatchTest {
+
+    private final UserService delegate = mock(UserService.class);
+    private final UserRepository userRepo = mock(UserRepository.class);
+    private final EmailClaims emailClaims = mock(EmailClaims.class);
+    private final ShardedUserService service = new ShardedUserService(delegate, userRepo,
+            new ShardRoutingDataSource(List.of(mock(DataSource.class), mock(DataSource.class))), emailClaims);
+
+
+    @Test
+    void should_report_rows_of_failed_shard_and_keep_rows_of_healthy_shard() {
+        when(emailClaims.hold(anyCollection(), any())).thenAnswer(invocation ->
+                invocation.<Supplier<?>>getArgument(1).get());
+        when(userRepo.findExistingEmails(anyCollection())).thenReturn(List.of());
+        when(delegate.createAll(anyList())).thenAnswer(invocation -> {
+            if (ShardContext.current() == 1) {
+                throw new CannotCreateTransactionException("Shard is down");
+            }
+            List<UserDTO> users = invocation.getArgument(0);
+            return IntStream.range(0, users.size())
+                    .mapToObj(i -> UserBatchResultDTO.created(i, users.get(i)))
+                    .toList();
+        });
+
+        var results = service.createAll(IntStream.range(0, 4)
+                .mapToObj(i -> new UserDTO(null, "user%d@example.com".formatted(i), "John", "Doe",
+                        LocalDate.of(1990, 1, 1), null, null))
+                .toList());
+
+        assertEquals(List.of(0, 1, 2, 3), results.stream().map(UserBatchResultDTO::index).toList());
+        assertEquals(List.of(Status.CREATED, Status.FAILED, Status.CREATED, Status.FAILED),
+                results.stream().map(UserBatchResultDTO::status).toList());
+        assertEquals("user2@example.com", results.get(2).user().email());
+    }
+}
@@ -0,0 +1,226 @@
+package clear.solution.practisetest.service.impl;
+
+import clear.solution.practisetest.dto.UserBatchResultDTO;
+import clear.solution.practisetest.dto.UserDTO;
+import clear.solution.practisetest.exception.ResourceInConflictException;
+import clear.solution.practisetest.exception.ResourceNotFoundException;
+import clear.solution.practisetest.model.User;
+import clear.solution.practisetest.repository.UserRepository;
+import clear.solution.practisetest.service.UserService;
+import clear.solution.practisetest.sharding.ShardRoutingDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "user.limit.enabled=false")
+@ActiveProfiles("sharded")
+class ShardedUserServiceTest {
+
+    private static final int USERS = 60;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ShardRoutingDataSource dataSource;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    private List<UserDTO> users;
+
+
+    @BeforeEach
+    void setUp() {
+        dataSource.shards().forEach(shard -> new JdbcTemplate(shard).update("delete from users"));
+        users = IntStream.range(0, USERS)
+                .mapToObj(i -> userService.create(user("user%02d@example.com".formatted(i),
+                        LocalDate.of(1960 + i % 40, 1 + i % 12, 1 + i % 28))))
+                .toList();
+    }
+
+    @Test
+    void should_spread_users_across_shards() {
+        assertInstanceOf(ShardedUserService.class, userService);
+        var total = 0L;
+        for (int shard = 0; shard < dataSource.shards().size(); shard++) {
+            var count = countOn(shard);
+            assertTrue(count > 0, "shard " + shard + " is empty");
+            total += count;
+        }
+        assertEquals(USERS, total);
+        users.forEach(user -> assertEquals(1, new JdbcTemplate(dataSource.shards().get(dataSource.shardOf(user.id())))
+                .queryForObject("select count(*) from users where id = ?", Long.class, user.id())));
+    }
+
+    @Test
+    void should_get_update_and_delete_by_id_on_owning_shard() {
+        var user = users.get(7);
+        assertEquals(user.email(), userService.getById(user.id()).email());
+
+        var patch = new UserDTO(null, null, "Changed", null, null, null, null, user.version());
+        assertEquals("Changed", userService.partialUpdate(user.id(), patch).firstName());
+
+        userService.deleteById(user.id());
+        assertThrows(ResourceNotFoundException.class, () -> userService.getById(user.id()));
+        assertEquals(USERS - 1, userService.countAll().value());
+    }
+
+    @Test
+    void should_merge_pages_in_global_order() {
+        var expected = users.stream()
+                .sorted(Comparator.comparing(UserDTO::birthDate).reversed().thenComparing(UserDTO::id))
+                .toList();
+
+        var collected = new ArrayList<UserDTO>();
+        var sort = Sort.by(Sort.Order.desc("birthDate"), Sort.Order.asc("id"));
+        for (int page = 0; ; page++) {
+            var slice = userService.getAll(PageRequest.of(page, 7, sort));
+            collected.addAll(slice.getContent());
+            if (!slice.hasNext()) break;
+        }
+
+        assertEquals(expected.stream().map(UserDTO::id).toList(), collected.stream().map(UserDTO::id).toList());
+    }
+
+    @Test
+    void should_scroll_across_shards() {
+        var collected = new ArrayList<Long>();
+        String cursor = null;
+        do {
+            var page = userService.scrollAll(cursor, 9);
+            page.content().forEach(user -> collected.add(user.id()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(users.stream().map(UserDTO::id).sorted().toList(), collected);
+    }
+
+    @Test
+    void should_count_across_shards() {
+        var from = LocalDate.of(1960, 1, 1);
+        var to = LocalDate.of(1980, 1, 1);
+        var expected = users.stream().filter(u -> !u.birthDate().isBefore(from) && u.birthDate().isBefore(to)).count();
+
+        assertEquals(USERS, userService.countAll().value());
+        assertEquals(expected, userService.countAllByBirthDateBetween(from, to).value());
+        assertEquals(expected, userService.deleteAllByBirthDateBetween(from, to));
+        assertEquals(USERS - expected, userService.countAll().value());
+    }
+
+    @Test
+    void should_reject_email_taken_on_another_shard() {
+        assertThrows(ResourceInConflictException.class,
+                () -> userService.create(user(users.get(3).email(), LocalDate.of(1990, 1, 1))));
+
+        var patch = new UserDTO(null, users.get(3).email(), null, null, null, null, null, users.get(4).version());
+        assertThrows(ResourceInConflictException.class, () -> userService.partialUpdate(users.get(4).id(), patch));
+        assertEquals(USERS, userService.countAll().value());
+    }
+
+    @Test
+    void should_create_an_email_once_under_concurrent_writers() throws Exception {
+        var writers = 8;
+        var start = new CountDownLatch(1);
+        var created = new AtomicInteger();
+        var conflicts = new AtomicInteger();
+        try (var executor = Executors.newFixedThreadPool(writers)) {
+            for (int i = 0; i < writers; i++) {
+                var birthDate = LocalDate.of(1980 + i, 1, 1);
+                executor.submit(() -> {
+                    start.await();
+                    try {
+                        userService.create(user("racer@example.com", birthDate));
+                        created.incrementAndGet();
+                    } catch (ResourceInConflictException e) {
+                        conflicts.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+
+        assertEquals(1, created.get());
+        assertEquals(writers - 1, conflicts.get());
+        assertEquals(USERS + 1, userService.countAll().value());
+    }
+
+    @Test
+    void should_reuse_email_of_deleted_user() {
+        var user = users.get(9);
+        userService.deleteById(user.id());
+
+        assertEquals(user.email(), userService.create(user(user.email(), LocalDate.of(1990, 1, 1))).email());
+    }
+
+    @Test
+    void should_create_batch_across_shards_and_keep_indexes() {
+        var results = userService.createAll(List.of(
+                user("batch0@example.com", LocalDate.of(1990, 1, 1)),
+                user(users.get(0).email(), LocalDate.of(1990, 1, 1)),
+                user("batch1@example.com", LocalDate.of(1990, 1, 1)),
+                user("batch0@example.com", LocalDate.of(1990, 1, 1)),
+                user("batch2@example.com", LocalDate.of(1990, 1, 1))));
+
+        assertEquals(List.of(0, 1, 2, 3, 4), results.stream().map(UserBatchResultDTO::index).toList());
+        assertEquals(List.of(UserBatchResultDTO.Status.CREATED, UserBatchResultDTO.Status.CONFLICT,
+                        UserBatchResultDTO.Status.CREATED, UserBatchResultDTO.Status.CONFLICT,
+                        UserBatchResultDTO.Status.CREATED),
+                results.stream().map(UserBatchResultDTO::status).toList());
+        assertEquals("batch2@example.com", userService.getById(results.get(4).user().id()).email());
+        assertEquals(USERS + 3, userService.countAll().value());
+    }
+
+    @Test
+    void should_look_up_and_delete_many_across_shards() {
+        var ids = List.of(users.get(5).id(), -1L, users.get(1).id(), users.get(40).id());
+
+        var lookup = userService.getAllById(ids);
+        assertEquals(List.of(users.get(5).id(), users.get(1).id(), users.get(40).id()),
+                lookup.users().stream().map(UserDTO::id).toList());
+        assertEquals(List.of(-1L), lookup.missing());
+
+        assertEquals(3, userService.deleteAllById(ids));
+        assertEquals(USERS - 3, userService.countAll().value());
+    }
+
+    @Test
+    void should_refuse_to_persist_user_outside_shard() {
+        var user = User.builder()
+                .email("unrouted@example.com")
+                .firstName("John")
+                .lastName("Doe")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .build();
+
+        var e = assertThrows(RuntimeException.class, () -> userRepo.save(user));
+        assertInstanceOf(IllegalStateException.class, NestedExceptionUtils.getMostSpecificCause(e));
+        assertEquals(USERS, userService.countAll().value());
+    }
+
+    private long countOn(int shard) {
+        return new JdbcTemplate(dataSource.shards().get(shard)).queryForObject("select count(*) from users", Long.class);
+    }
+
+    private static UserDTO user(String email, LocalDate birthDate) {
+        return new UserDTO(null, email, "John", "Doe", birthDate, null, "123456789012");
+    }
+}
@@ -0,0 +1,140 @@
+package clear.solution.practisetest.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightAspectTest {
+
+    private static final int CALLERS = 8;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Loader target = new Loader();
+
+    private Loader loader;
+
+
+    @BeforeEach
+    void setUp() {
+        var factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new SingleFlightAspect(meterRegistry));
+        loader = factory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        target.release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void should_share_one_load_between_concurrent_callers() throws Exception {
+        var results = startConcurrently(1L);
+
+        target.release.countDown();
+
+        for (var result : results) {
+            assertEquals("user-1", result.get());
+        }
+        assertEquals(1, target.loads.get());
+        assertEquals(1.0, calls("leader"));
+        assertEquals(CALLERS - 1.0, calls("coalesced"));
+    }
+
+    @Test
+    void should_propagate_failure_to_all_callers() throws Exception {
+        var results = startConcurrently(-1L);
+
+        target.release.countDown();
+
+        for (var result : results) {
+            var e = assertThrows(ExecutionException.class, result::get);
+            assertInstanceOf(IllegalArgumentException.class, e.getCause());
+        }
+        assertEquals(1, target.loads.get());
+    }
+
+    @Test
+    void should_load_again_once_call_completes() {
+        target.release.countDown();
+
+        loader.load(1L);
+        loader.load(1L);
+
+        assertEquals(2, target.loads.get());
+        assertEquals(2.0, calls("leader"));
+    }
+
+    @Test
+    void should_not_coalesce_different_arguments() throws Exception {
+        var first = executor.submit(() -> loader.load(1L));
+        awaitLoads(1);
+        var second = executor.submit(() -> loader.load(2L));
+        awaitLoads(2);
+
+        target.release.countDown();
+
+        assertEquals("user-1", first.get());
+        assertEquals("user-2", second.get());
+        assertEquals(2.0, calls("leader"));
+    }
+
+    private ArrayList<Future<String>> startConcurrently(long id) throws InterruptedException {
+        var results = new ArrayList<Future<String>>();
+        results.add(executor.submit(() -> loader.load(id)));
+        awaitLoads(1);
+        for (int i = 1; i < CALLERS; i++) {
+            results.add(executor.submit(() -> loader.load(id)));
+        }
+        while (calls("coalesced") < CALLERS - 1) {
+            Thread.sleep(1);
+        }
+        return results;
+    }
+
+    private void awaitLoads(int loads) throws InterruptedException {
+        while (target.loads.get() < loads) {
+            Thread.sleep(1);
+        }
+    }
+
+    private double calls(String role) {
+        var counter = meterRegistry.find("user.single.flight.calls").tag("role", role).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    static class Loader {
+
+        private final AtomicInteger loads = new AtomicInteger();
+        private final CountDownLatch release = new CountDownLatch(1);
+
+
+        @SingleFlight
+        public String load(long id) {
+            loads.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (id < 0) {
+                throw new IllegalArgumentException("Id must be positive");
+            }
+            return "user-" + id;
+        }
+    }
+}
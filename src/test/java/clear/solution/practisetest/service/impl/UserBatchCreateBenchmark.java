@@ -0,0 +1,55 @@
+package clear.solution.practisetest.service.impl;
+
+import clear.solution.practisetest.dto.UserBatchResultDTO;
+import clear.solution.practisetest.dto.UserDTO;
+import clear.solution.practisetest.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class UserBatchCreateBenchmark {
+
+    private static final int USERS = 1000;
+
+    @Autowired
+    private UserService userService;
+
+
+    @Test
+    void should_create_all_faster_than_one_by_one() {
+        var single = users("single");
+        var batch = users("batch");
+
+        var singleStart = System.nanoTime();
+        single.forEach(userService::create);
+        var singleRate = USERS / seconds(singleStart);
+
+        var batchStart = System.nanoTime();
+        var results = userService.createAll(batch);
+        var batchRate = USERS / seconds(batchStart);
+
+        System.out.printf("One by one: %.0f users/s, batch: %.0f users/s, gain: %.1fx%n",
+                singleRate, batchRate, batchRate / singleRate);
+
+        assertTrue(results.stream().allMatch(r -> r.status() == UserBatchResultDTO.Status.CREATED));
+        assertTrue(batchRate > singleRate);
+    }
+
+    private static List<UserDTO> users(String prefix) {
+        return IntStream.range(0, USERS)
+                .mapToObj(i -> new UserDTO(null, "%s%d@example.com".formatted(prefix, i), "John", "Doe",
+                        LocalDate.of(1990, 5, 15), null, "123456789012"))
+                .toList();
+    }
+
+    private static double seconds(long start) {
+        return (System.nanoTime() - start) / 1e9;
+    }
+}
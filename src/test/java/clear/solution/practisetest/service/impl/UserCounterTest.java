@@ -0,0 +1,86 @@
+package clear.solution.practisetest.service.impl;
+
+import clear.solution.practisetest.config.UserCountProperties;
+import clear.solution.practisetest.dto.TotalCount;
+import clear.solution.practisetest.dto.TotalCount.Strategy;
+import clear.solution.practisetest.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class UserCounterTest {
+
+    private final UserRepository userRepo = mock(UserRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+
+    @Test
+    void should_count_exactly_every_time() {
+        var counter = counter(Strategy.EXACT);
+        when(userRepo.count()).thenReturn(3L, 4L);
+
+        assertEquals(TotalCount.exact(3), counter.countAll());
+        assertEquals(TotalCount.exact(4), counter.countAll());
+    }
+
+    @Test
+    void should_cache_counts_per_range() {
+        var counter = counter(Strategy.CACHED);
+        var from = LocalDate.of(1990, 1, 1);
+        var to = from.plusYears(1);
+        when(userRepo.count()).thenReturn(10L);
+        when(userRepo.countByBirthDateBetween(from, to)).thenReturn(2L);
+
+        counter.countAll();
+        counter.countByBirthDateBetween(from, to);
+
+        assertEquals(new TotalCount(10, Strategy.CACHED), counter.countAll());
+        assertEquals(new TotalCount(2, Strategy.CACHED), counter.countByBirthDateBetween(from, to));
+        verify(userRepo, times(1)).count();
+        verify(userRepo, times(1)).countByBirthDateBetween(from, to);
+    }
+
+    @Test
+    void should_keep_counter_from_seed_and_deltas() {
+        var counter = counter(Strategy.COUNTER);
+        when(userRepo.count()).thenReturn(10L);
+
+        counter.countAll();
+        counter.added(5);
+        counter.added(-1);
+
+        assertEquals(new TotalCount(14, Strategy.COUNTER), counter.countAll());
+        verify(userRepo, times(1)).count();
+    }
+
+    @Test
+    void should_estimate_from_table_statistics() {
+        var counter = counter(Strategy.ESTIMATED);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(1000L);
+
+        assertEquals(new TotalCount(1000, Strategy.ESTIMATED), counter.countAll());
+        verify(userRepo, never()).count();
+    }
+
+    @Test
+    void should_fall_back_to_cached_count_when_estimate_unavailable() {
+        var counter = counter(Strategy.ESTIMATED);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class)))
+                .thenThrow(new DataAccessResourceFailureException("No statistics"));
+        when(userRepo.count()).thenReturn(7L);
+
+        assertEquals(new TotalCount(7, Strategy.CACHED), counter.countAll());
+    }
+
+    private UserCounter counter(Strategy strategy) {
+        return new UserCounter(userRepo, jdbcTemplate, new UserCountProperties(strategy, Duration.ofMinutes(1)));
+    }
+}
@@ -0,0 +1,157 @@
+package clear.solution.practisetest.service.impl;
+
+import clear.solution.practisetest.config.UserImportProperties;
+import clear.solution.practisetest.dto.AddressDTO;
+import clear.solution.practisetest.dto.RejectedRowDTO;
+import clear.solution.practisetest.dto.UserBatchResultDTO;
+import clear.solution.practisetest.dto.UserDTO;
+import clear.solution.practisetest.dto.mapper.UserCsvMapper;
+import clear.solution.practisetest.dto.validation.UserDTOValidator;
+import clear.solution.practisetest.service.UserImportService.Format;
+import clear.solution.practisetest.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class UserImportServiceImplTest {
+
+    private final UserService userService = mock(UserService.class);
+
+    @TempDir
+    private Path checkpoints;
+
+    private UserImportServiceImpl service;
+
+
+    @BeforeEach
+    void setUp() {
+        service = new UserImportServiceImpl(
+                userService,
+                new UserCsvMapper(),
+                new ObjectMapper().findAndRegisterModules(),
+                new UserDTOValidator(Validation.buildDefaultValidatorFactory().getValidator()),
+                new UserImportProperties(2, 10, checkpoints, checkpoints));
+        when(userService.createAll(anyList())).thenAnswer(invocation -> {
+            List<UserDTO> users = invocation.getArgument(0);
+            return IntStream.range(0, users.size())
+                    .mapToObj(i -> UserBatchResultDTO.created(i, users.get(i)))
+                    .toList();
+        });
+    }
+
+    @Test
+    void should_import_csv_in_chunks() {
+        var csv = UserCsvMapper.HEADER + "\n"
+                + ",user1@example.com,John,Doe,1990-05-15,123456789012,City,Country,,,,\n"
+                + ",user2@example.com,Jane,Smith,1985-10-20,,,,,,,\n"
+                + ",user3@example.com,J,\"Multi\nline\",1990-05-15,,,,,,,\n";
+
+        var report = service.importUsers(new StringReader(csv), Format.CSV, null);
+
+        verify(userService, times(1)).createAll(List.of(
+                new UserDTO(null, "user1@example.com", "John", "Doe", LocalDate.of(1990, 5, 15),
+                        new AddressDTO("City", "Country", null, null, null, null), "123456789012"),
+                new UserDTO(null, "user2@example.com", "Jane", "Smith", LocalDate.of(1985, 10, 20),
+                        null, null)));
+        verify(userService, times(1)).createAll(anyList());
+
+        assertEquals(3, report.processed());
+        assertEquals(2, report.created());
+        assertEquals(1, report.rejected());
+        assertEquals(3, report.checkpoint());
+        assertEquals(List.of(new RejectedRowDTO(3, List.of("firstName: First name must be between 2 and 30 symbols"))),
+                report.rejections().stream()
+                        .map(r -> new RejectedRowDTO(r.row(), List.copyOf(r.errors())))
+                        .toList());
+    }
+
+    @Test
+    void should_report_rejected_ndjson_rows() {
+        when(userService.createAll(anyList())).thenReturn(List.of(
+                UserBatchResultDTO.conflict(0, "User with email user1@example.com already exists")));
+        var ndjson = """
+                {"email":"user1@example.com","firstName":"John","lastName":"Doe","birthDate":"1990-05-15"}
+                not json
+
+                {"email":"bad","firstName":"Jane","lastName":"Smith","birthDate":"1985-10-20"}
+                """;
+
+        var report = service.importUsers(new StringReader(ndjson), Format.NDJSON, null);
+
+        assertEquals(3, report.processed());
+        assertEquals(0, report.created());
+        assertEquals(3, report.rejected());
+        assertEquals(List.of(1L, 2L, 3L), report.rejections().stream().map(RejectedRowDTO::row).sorted().toList());
+    }
+
+    @Test
+    void should_reject_null_ndjson_row() {
+        var ndjson = """
+                null
+                {"email":"user1@example.com","firstName":"John","lastName":"Doe","birthDate":"1990-05-15"}
+                """;
+
+        var report = service.importUsers(new StringReader(ndjson), Format.NDJSON, null);
+
+        assertEquals(2, report.processed());
+        assertEquals(1, report.created());
+        assertEquals(List.of(new RejectedRowDTO(1, List.of("Row must be a JSON object"))), report.rejections());
+    }
+
+    @Test
+    void should_resume_from_checkpoint() throws Exception {
+        Files.writeString(checkpoints.resolve("job-1.checkpoint"), "2");
+        var ndjson = """
+                {"email":"user1@example.com","firstName":"John","lastName":"Doe","birthDate":"1990-05-15"}
+                {"email":"user2@example.com","firstName":"John","lastName":"Doe","birthDate":"1990-05-15"}
+                {"email":"user3@example.com","firstName":"John","lastName":"Doe","birthDate":"1990-05-15"}
+                """;
+
+        var report = service.importUsers(new StringReader(ndjson), Format.NDJSON, "job-1");
+
+        verify(userService, times(1)).createAll(List.of(new UserDTO(null, "user3@example.com", "John", "Doe",
+                LocalDate.of(1990, 5, 15), null, null)));
+        assertEquals(1, report.processed());
+        assertEquals(3, report.checkpoint());
+        assertFalse(Files.exists(checkpoints.resolve("job-1.checkpoint")));
+    }
+
+    @Test
+    void should_keep_checkpoint_of_last_committed_chunk_when_import_fails() {
+        when(userService.createAll(anyList()))
+                .thenReturn(List.of(UserBatchResultDTO.created(0, null), UserBatchResultDTO.created(1, null)))
+                .thenThrow(new IllegalStateException("Database is down"));
+        var ndjson = """
+                {"email":"user1@example.com","firstName":"John","lastName":"Doe","birthDate":"1990-05-15"}
+                {"email":"user2@example.com","firstName":"John","lastName":"Doe","birthDate":"1990-05-15"}
+                {"email":"user3@example.com","firstName":"John","lastName":"Doe","birthDate":"1990-05-15"}
+                """;
+
+        assertThrows(IllegalStateException.class,
+                () -> service.importUsers(new StringReader(ndjson), Format.NDJSON, "job-2"));
+
+        assertTrue(Files.exists(checkpoints.resolve("job-2.checkpoint")));
+        assertEquals(2, assertDoesNotThrow(
+                () -> Long.parseLong(Files.readString(checkpoints.resolve("job-2.checkpoint")))));
+    }
+
+    @Test
+    void should_reject_path_outside_import_directory() {
+        assertThrows(IllegalArgumentException.class, () -> service.importFile("../users.csv", null));
+        verify(userService, never()).createAll(any());
+    }
+}
@@ -0,0 +1,35 @@
+package clear.solution.practisetest.service.impl;
+
+import clear.solution.practisetest.dto.UserDTO;
+import clear.solution.practisetest.exception.PreconditionFailedException;
+import clear.solution.practisetest.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class UserOptimisticLockingTest {
+
+    @Autowired
+    private UserService userService;
+
+
+    @Test
+    void should_increment_version_and_reject_stale_update() {
+        var created = userService.create(new UserDTO(null, "locking@example.com", "John", "Doe",
+                LocalDate.of(1990, 5, 15), null, null));
+        var patch = new UserDTO(null, null, "Jane", null, null, null, null);
+
+        var updated = userService.partialUpdate(created.id(), patch.withVersion(created.version()));
+
+        assertEquals(created.version() + 1, updated.version());
+        assertEquals(updated.version(), userService.getById(created.id()).version());
+        assertThrows(PreconditionFailedException.class,
+                () -> userService.partialUpdate(created.id(), patch.withVersion(created.version())));
+        assertEquals("Jane", userService.partialUpdate(created.id(), patch).firstName());
+    }
+}
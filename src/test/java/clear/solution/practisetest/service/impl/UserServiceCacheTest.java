@@ -0,0 +1,132 @@
+package clear.solution.practisetest.service.impl;
+
+import clear.solution.practisetest.dto.UserDTO;
+import clear.solution.practisetest.model.User;
+import clear.solution.practisetest.repository.UserRepository;
+import clear.solution.practisetest.repository.UserView;
+import clear.solution.practisetest.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static clear.solution.practisetest.config.CacheConfig.USERS_CACHE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class UserServiceCacheTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockBean
+    private UserRepository userRepo;
+
+    private User user;
+
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(USERS_CACHE).clear();
+        user = User.builder()
+                .id(1L).email("test@example.com").firstName("name").lastName("surname")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .build();
+        when(userRepo.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepo.findViewById(1L)).thenReturn(Optional.of(new UserView(1L, "test@example.com", "name",
+                "surname", LocalDate.of(1990, 1, 1), null, null, null, null, null, null, null, 0L)));
+        when(userRepo.saveAndFlush(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        clearInvocations(userRepo);
+    }
+
+    @Test
+    void should_get_by_id_from_cache() {
+        var first = userService.getById(1L);
+        var second = userService.getById(1L);
+
+        verify(userRepo, times(1)).findViewById(1L);
+        assertEquals(first, second);
+    }
+
+    @Test
+    void should_refresh_cache_when_update() {
+        userService.getById(1L);
+        var patch = userService.partialUpdate(1L,
+                new UserDTO(null, null, "changed", null, null, null, null));
+        clearInvocations(userRepo);
+
+        var actual = userService.getById(1L);
+
+        verify(userRepo, never()).findViewById(1L);
+        assertEquals(patch, actual);
+        assertEquals("changed", actual.firstName());
+    }
+
+    @Test
+    void should_evict_cache_when_delete() {
+        userService.getById(1L);
+        userService.deleteById(1L);
+        clearInvocations(userRepo);
+
+        userService.getById(1L);
+
+        verify(userRepo, times(1)).findViewById(1L);
+    }
+
+    @Test
+    void should_not_cache_a_read_that_raced_an_update() {
+        var stale = userRepo.findViewById(1L).orElseThrow();
+        when(userRepo.findViewById(1L)).thenAnswer(invocation -> {
+            userService.partialUpdate(1L, new UserDTO(null, null, "changed", null, null, null, null));
+            return Optional.of(stale);
+        });
+
+        assertEquals("name", userService.getById(1L).firstName());
+
+        assertEquals("changed", cacheManager.getCache(USERS_CACHE).get(1L, UserDTO.class).firstName());
+    }
+
+    @Test
+    void should_not_cache_a_read_that_raced_a_delete() {
+        var stale = userRepo.findViewById(1L).orElseThrow();
+        when(userRepo.findViewById(1L)).thenAnswer(invocation -> {
+            cacheManager.getCache(USERS_CACHE).evict(1L);
+            return Optional.of(stale);
+        });
+        when(userRepo.findAllViewsByIds(List.of(1L))).thenAnswer(invocation -> {
+            cacheManager.getCache(USERS_CACHE).evict(1L);
+            return List.of(stale);
+        });
+
+        userService.getById(1L);
+        userService.getAllById(List.of(1L));
+
+        assertNull(cacheManager.getCache(USERS_CACHE).get(1L));
+    }
+
+    @Test
+    void should_evict_cache_after_bulk_delete_and_patch() {
+        when(userRepo.findExistingIds(List.of(1L))).thenReturn(List.of(1L));
+        when(userRepo.deleteAllByIds(List.of(1L))).thenReturn(1);
+
+        userService.getById(1L);
+        userService.deleteAllById(List.of(1L));
+        userService.getById(1L);
+        userService.partialUpdateAll(List.of(1L), new UserDTO(null, null, "changed", null, null, null, null));
+        userService.getById(1L);
+
+        verify(userRepo, times(3)).findViewById(1L);
+    }
+}
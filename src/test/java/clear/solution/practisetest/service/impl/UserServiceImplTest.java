@@ -1,29 +1,51 @@
 package clear.solution.practisetest.service.impl;
 
+import clear.solution.practisetest.config.GuardedCaffeineCache;
+import clear.solution.practisetest.config.UserBulkProperties;
 import clear.solution.practisetest.config.UserValidationProperties;
 import clear.solution.practisetest.dto.AddressDTO;
+import clear.solution.practisetest.dto.TotalCount;
+import clear.solution.practisetest.dto.UserBatchResultDTO;
 import clear.solution.practisetest.dto.UserDTO;
 import clear.solution.practisetest.dto.mapper.UserMapper;
+import clear.solution.practisetest.exception.PreconditionFailedException;
 import clear.solution.practisetest.exception.ResourceInConflictException;
 import clear.solution.practisetest.exception.ResourceNotFoundException;
 import clear.solution.practisetest.model.Address;
 import clear.solution.practisetest.model.User;
 import clear.solution.practisetest.repository.UserRepository;
+import clear.solution.practisetest.repository.UserView;
+import clear.solution.practisetest.service.impl.AuditEvent.Operation;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.persistence.EntityManager;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCache;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.*;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static clear.solution.practisetest.config.CacheConfig.USERS_CACHE;
+
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,48 +63,66 @@ class UserServiceImplTest {
     @Mock
     private UserValidationProperties props;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private EmailIndex emailIndex;
+
+    @Mock
+    private UserCounter userCounter;
+
+    @Mock
+    private AuditLog auditLog;
+
+    @Mock
+    private UserBulkProperties bulkProps;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private CacheManager cacheManager;
+
 
     @Test
     void should_get_all() {
-        var u1 = new User();
-        u1.setId(1L);
-        var u2 = new User();
-        u1.setId(2L);
+        var u1 = view(1L);
+        var u2 = view(2L);
         var ud1 = new UserDTO(1L, null, null, null, null, null, null);
         var ud2 = new UserDTO(2L, null, null, null, null, null, null);
 
         var pageable = PageRequest.of(10, 10);
-        when(userRepo.findAll(pageable)).thenReturn(new PageImpl<>(List.of(u1, u2)));
+        when(userRepo.findAllViews(pageable)).thenReturn(new SliceImpl<>(List.of(u1, u2)));
         when(mapper.toDTO(u1)).thenReturn(ud1);
         when(mapper.toDTO(u2)).thenReturn(ud2);
         var expected = new PageImpl<>(List.of(ud1, ud2));
 
         var actual = service.getAll(pageable);
 
-        verify(userRepo, times(1)).findAll(pageable);
-        verify(mapper, times(2)).toDTO(any(User.class));
+        verify(userRepo, times(1)).findAllViews(pageable);
+        verify(mapper, times(2)).toDTO(any(UserView.class));
 
         assertEquals(expected.getContent(), actual.getContent());
     }
 
     @Test
     void should_get_all_by_birth_date_between() {
-        var u1 = new User();
-        u1.setId(1L);
+        var u1 = view(1L);
         var ud1 = new UserDTO(1L, null, null, null, null, null, null);
 
         var pageable = PageRequest.of(10, 10);
         var from = LocalDate.of(1, 1, 1);
         var to = from.plusDays(10);
-        when(userRepo.findAllByBirthDateBetween(from, to, pageable))
-                .thenReturn(new PageImpl<>(List.of(u1)));
+        when(userRepo.findAllViewsByBirthDateBetween(from, to, pageable))
+                .thenReturn(new SliceImpl<>(List.of(u1)));
         when(mapper.toDTO(u1)).thenReturn(ud1);
         var expected = new PageImpl<>(List.of(ud1));
 
         var actual = service.getAllByBirthDateBetween(from, to, pageable);
 
-        verify(userRepo, times(1)).findAllByBirthDateBetween(from, to, pageable);
-        verify(mapper, times(1)).toDTO(any(User.class));
+        verify(userRepo, times(1)).findAllViewsByBirthDateBetween(from, to, pageable);
+        verify(mapper, times(1)).toDTO(any(UserView.class));
 
         assertEquals(expected.getContent(), actual.getContent());
     }
@@ -95,20 +135,52 @@ class UserServiceImplTest {
 
         assertThrows(IllegalArgumentException.class, () -> service.getAllByBirthDateBetween(from, to, pageable));
 
-        verify(userRepo, never()).findAllByBirthDateBetween(from, to, pageable);
+        verify(userRepo, never()).findAllViewsByBirthDateBetween(from, to, pageable);
     }
 
     @Test
-    void should_get_by_id() {
+    void should_scroll_all_with_next_cursor() {
         var u1 = new User();
+        u1.setId(1L);
         var ud1 = new UserDTO(1L, null, null, null, null, null, null);
+        var window = Window.from(List.of(u1), i -> ScrollPosition.forward(Map.of("id", 1L)), true);
 
-        when(userRepo.findById(1L)).thenReturn(Optional.of(u1));
+        when(userRepo.findAllByOrderByIdAsc(ScrollPosition.keyset(), Limit.of(1))).thenReturn(window);
+        when(mapper.toDTO(u1)).thenReturn(ud1);
+
+        var first = service.scrollAll(null, 1);
+
+        assertEquals(List.of(ud1), first.content());
+        assertNotNull(first.nextCursor());
+
+        when(userRepo.findAllByOrderByIdAsc(ScrollPosition.forward(Map.of("id", 1L)), Limit.of(1)))
+                .thenReturn(Window.from(List.of(), i -> ScrollPosition.keyset()));
+
+        var second = service.scrollAll(first.nextCursor(), 1);
+
+        assertTrue(second.content().isEmpty());
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    void should_throw_if_cursor_is_not_valid_when_scroll() {
+        assertThrows(IllegalArgumentException.class, () -> service.scrollAll("not a cursor", 10));
+        assertThrows(IllegalArgumentException.class, () -> service.scrollAllByBirthDateBetween(
+                LocalDate.of(1, 1, 1), LocalDate.of(2, 1, 1), "MQ", 10));
+    }
+
+    @Test
+    void should_get_by_id() {
+        var u1 = view(1L);
+        var ud1 = new UserDTO(1L, null, null, null, null, null, null);
+
+        when(userRepo.findViewById(1L)).thenReturn(Optional.of(u1));
         when(mapper.toDTO(u1)).thenReturn(ud1);
 
         var actual = service.getById(1L);
 
-        verify(userRepo, times(1)).findById(1L);
+        verify(userRepo, times(1)).findViewById(1L);
+        verify(userRepo, never()).findById(1L);
         verify(mapper, times(1)).toDTO(u1);
 
         assertEquals(ud1, actual);
@@ -116,7 +188,7 @@ class UserServiceImplTest {
 
     @Test
     void throw_not_found_when_get_by_d() {
-        when(userRepo.findById(1L)).thenReturn(Optional.empty());
+        when(userRepo.findViewById(1L)).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> service.getById(1L));
     }
 
@@ -130,6 +202,7 @@ class UserServiceImplTest {
         var ud2 = new UserDTO(1L, "test", null, null, birthDate, null, null);
 
         when(props.age()).thenReturn(18);
+        when(emailIndex.mightContain("test")).thenReturn(true);
         when(userRepo.existsByEmail("test")).thenReturn(false);
         when(mapper.toEntity(ud1)).thenReturn(u1);
         when(userRepo.save(u1)).thenReturn(u1);
@@ -140,6 +213,7 @@ class UserServiceImplTest {
         verify(userRepo, times(1)).existsByEmail("test");
         verify(mapper, times(1)).toEntity(ud1);
         verify(userRepo, times(1)).save(u1);
+        verify(emailIndex, times(1)).add("test");
         verify(mapper, times(1)).toDTO(u1);
 
         assertEquals(ud2, actual);
@@ -150,6 +224,7 @@ class UserServiceImplTest {
         var birthDate = LocalDate.now();
         var ud1 = new UserDTO(null, "test", null, null, birthDate, null, null);
 
+        when(emailIndex.mightContain("test")).thenReturn(true);
         when(userRepo.existsByEmail("test")).thenReturn(false);
         when(props.age()).thenReturn(18);
 
@@ -160,11 +235,61 @@ class UserServiceImplTest {
     void should_throw_if_exists_by_email_when_create() {
         var ud1 = new UserDTO(null, "test", null, null, null, null, null);
 
+        when(emailIndex.mightContain("test")).thenReturn(true);
         when(userRepo.existsByEmail("test")).thenReturn(true);
 
         assertThrows(ResourceInConflictException.class, () -> service.create(ud1));
     }
 
+    @Test
+    void should_skip_exists_by_email_if_index_does_not_contain_it_when_create() {
+        var birthDate = LocalDate.now().minusYears(18);
+        var u1 = new User();
+        u1.setEmail("test");
+        var ud1 = new UserDTO(null, "test", null, null, birthDate, null, null);
+
+        when(props.age()).thenReturn(18);
+        when(emailIndex.mightContain("test")).thenReturn(false);
+        when(mapper.toEntity(ud1)).thenReturn(u1);
+        when(userRepo.save(u1)).thenReturn(u1);
+
+        service.create(ud1);
+
+        verify(userRepo, never()).existsByEmail(any());
+        verify(userRepo, times(1)).save(u1);
+    }
+
+    @Test
+    void should_create_all() {
+        var birthDate = LocalDate.now().minusYears(20);
+        var ud1 = new UserDTO(null, "new", null, null, birthDate, null, null);
+        var ud2 = new UserDTO(null, "taken", null, null, birthDate, null, null);
+        var ud3 = new UserDTO(null, "young", null, null, LocalDate.now().minusYears(1), null, null);
+        var ud4 = new UserDTO(null, "new", null, null, birthDate, null, null);
+        var u1 = new User();
+        var saved = new UserDTO(1L, "new", null, null, birthDate, null, null);
+
+        when(props.age()).thenReturn(18);
+        when(emailIndex.mightContain(any())).thenReturn(true);
+        when(userRepo.findExistingEmails(List.of("new", "taken", "young"))).thenReturn(List.of("taken"));
+        when(mapper.toEntity(ud1)).thenReturn(u1);
+        when(userRepo.saveAll(List.of(u1))).thenReturn(List.of(u1));
+        when(mapper.toDTO(u1)).thenReturn(saved);
+
+        var actual = service.createAll(List.of(ud1, ud2, ud3, ud4));
+
+        verify(userRepo, times(1)).findExistingEmails(any());
+        verify(userRepo, never()).existsByEmail(any());
+        verify(userRepo, times(1)).saveAll(List.of(u1));
+
+        assertEquals(List.of(
+                UserBatchResultDTO.created(0, saved),
+                UserBatchResultDTO.conflict(1, "User with email taken already exists"),
+                UserBatchResultDTO.rejected(2, "User must be over 18 years of age"),
+                UserBatchResultDTO.conflict(3, "User with email new already exists")
+        ), actual);
+    }
+
     @Test
     void should_full_update() {
         var u1 = User.builder()
@@ -180,16 +305,15 @@ class UserServiceImplTest {
                 "01234567890");
 
         when(userRepo.findById(1L)).thenReturn(Optional.of(u1));
-        when(userRepo.existsByEmail("test2")).thenReturn(false);
-        when(userRepo.save(u1)).thenReturn(u1);
+        when(userRepo.saveAndFlush(u1)).thenReturn(u1);
         when(mapper.toDTO(u1)).thenReturn(dto);
 
         var actual = service.fullUpdate(1L, dto);
 
         verify(userRepo, times(1)).findById(1L);
-        verify(userRepo, times(1)).existsByEmail("test2");
+        verify(userRepo, never()).existsByEmail(any());
         verify(mapper, times(1)).fullUpdate(dto, u1);
-        verify(userRepo, times(1)).save(u1);
+        verify(userRepo, times(1)).saveAndFlush(u1);
         verify(mapper, times(1)).toDTO(u1);
 
         assertEquals(dto, actual);
@@ -215,16 +339,15 @@ class UserServiceImplTest {
                 "01234567890");
 
         when(userRepo.findById(1L)).thenReturn(Optional.of(u1));
-        when(userRepo.existsByEmail("test2")).thenReturn(false);
-        when(userRepo.save(u1)).thenReturn(u1);
+        when(userRepo.saveAndFlush(u1)).thenReturn(u1);
         when(mapper.toDTO(u1)).thenReturn(updated);
 
         var actual = service.partialUpdate(1L, dto);
 
         verify(userRepo, times(1)).findById(1L);
-        verify(userRepo, times(1)).existsByEmail("test2");
+        verify(userRepo, never()).existsByEmail(any());
         verify(mapper, times(1)).partialUpdate(dto, u1);
-        verify(userRepo, times(1)).save(u1);
+        verify(userRepo, times(1)).saveAndFlush(u1);
         verify(mapper, times(1)).toDTO(u1);
 
         assertEquals(updated, actual);
@@ -234,18 +357,238 @@ class UserServiceImplTest {
     void should_throw_conflict_if_email_exists_when_update() {
         var u1 = new User();
         u1.setId(1L);
+        u1.setEmail("own");
         var ud1 = new UserDTO(null, "test", null, null, null, null, null);
+        var violation = new DataIntegrityViolationException("Unique index violated",
+                new ConstraintViolationException("Unique index violated", null, "PUBLIC.USERS_EMAIL_UK"));
 
         when(userRepo.findById(1L)).thenReturn(Optional.of(u1));
-        when(userRepo.existsByEmail("test")).thenReturn(true);
+        doAnswer(invocation -> {
+            u1.setEmail("test");
+            return null;
+        }).when(mapper).fullUpdate(ud1, u1);
+        when(userRepo.saveAndFlush(u1)).thenThrow(violation);
 
         assertThrows(ResourceInConflictException.class, () -> service.fullUpdate(1L, ud1));
-        assertThrows(ResourceInConflictException.class, () -> service.partialUpdate(1L, ud1));
+
+        verify(userRepo, never()).existsByEmail(any());
+        verify(emailIndex, never()).add(any());
+    }
+
+    @Test
+    void should_not_check_email_when_unchanged_on_update() {
+        var u1 = new User();
+        u1.setId(1L);
+        u1.setEmail("own");
+        var ud1 = new UserDTO(null, "own", "name", null, null, null, null);
+
+        when(userRepo.findById(1L)).thenReturn(Optional.of(u1));
+        when(userRepo.saveAndFlush(u1)).thenReturn(u1);
+
+        service.partialUpdate(1L, ud1);
+
+        verify(userRepo, never()).existsByEmail(any());
+        verify(emailIndex, never()).add(any());
+        verify(mapper, times(1)).partialUpdate(ud1, u1);
+        verify(auditLog, never()).record(any(), any(), any(), anyLong());
+    }
+
+    @Test
+    void should_audit_changed_fields_when_update() {
+        var u1 = new User();
+        u1.setId(1L);
+        u1.setEmail("own");
+        u1.setFirstName("name");
+        var ud1 = new UserDTO(null, null, "changed", null, null, null, null);
+
+        when(userRepo.findById(1L)).thenReturn(Optional.of(u1));
+        doAnswer(invocation -> {
+            u1.setFirstName("changed");
+            return null;
+        }).when(mapper).partialUpdate(ud1, u1);
+        when(userRepo.saveAndFlush(u1)).thenReturn(u1);
+
+        service.partialUpdate(1L, ud1);
+
+        verify(auditLog, times(1)).record(eq(Operation.PARTIAL_UPDATE), eq(u1), eq(List.of("firstName")), anyLong());
+    }
+
+    @Test
+    void should_throw_precondition_failed_if_version_differs_when_update() {
+        var u1 = new User();
+        u1.setId(1L);
+        u1.setVersion(2L);
+        var ud1 = new UserDTO(null, null, "name", null, null, null, null, 1L);
+
+        when(userRepo.findById(1L)).thenReturn(Optional.of(u1));
+
+        assertThrows(PreconditionFailedException.class, () -> service.fullUpdate(1L, ud1));
+        assertThrows(PreconditionFailedException.class, () -> service.partialUpdate(1L, ud1));
+
+        verify(mapper, never()).fullUpdate(any(), any());
+        verify(mapper, never()).partialUpdate(any(), any());
+        verify(userRepo, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void should_export_all_and_detach() {
+        var u1 = new User();
+        var u2 = new User();
+        var ud1 = new UserDTO(1L, null, null, null, null, null, null);
+        var ud2 = new UserDTO(2L, null, null, null, null, null, null);
+
+        when(userRepo.streamAll()).thenReturn(Stream.of(u1, u2));
+        when(mapper.toDTO(u1)).thenReturn(ud1);
+        when(mapper.toDTO(u2)).thenReturn(ud2);
+        var exported = new ArrayList<UserDTO>();
+
+        service.exportAll(exported::add);
+
+        verify(entityManager, times(1)).detach(u1);
+        verify(entityManager, times(1)).detach(u2);
+
+        assertEquals(List.of(ud1, ud2), exported);
+    }
+
+    @Test
+    void should_look_up_in_request_order_using_cache_and_chunked_queries() {
+        var cache = new GuardedCaffeineCache(USERS_CACHE, Caffeine.newBuilder().build(), false);
+        var cached = new UserDTO(2L, null, null, null, null, null, null);
+        cache.put(2L, cached);
+        when(cacheManager.getCache(USERS_CACHE)).thenReturn(cache);
+        when(bulkProps.chunkSize()).thenReturn(2);
+        var v1 = view(1L);
+        var v3 = view(3L);
+        var v5 = view(5L);
+        var u1 = new UserDTO(1L, null, null, null, null, null, null);
+        var u3 = new UserDTO(3L, null, null, null, null, null, null);
+        var u5 = new UserDTO(5L, null, null, null, null, null, null);
+        when(userRepo.findAllViewsByIds(List.of(3L, 1L))).thenReturn(List.of(v1, v3));
+        when(userRepo.findAllViewsByIds(List.of(4L, 5L))).thenReturn(List.of(v5));
+        when(mapper.toDTO(v1)).thenReturn(u1);
+        when(mapper.toDTO(v3)).thenReturn(u3);
+        when(mapper.toDTO(v5)).thenReturn(u5);
+
+        var result = service.getAllById(List.of(3L, 2L, 1L, 4L, 5L, 3L));
+
+        assertEquals(List.of(u3, cached, u1, u5), result.users());
+        assertEquals(List.of(4L), result.missing());
+        verify(userRepo, times(2)).findAllViewsByIds(any());
+        assertEquals(u5, cache.get(5L, UserDTO.class));
     }
 
     @Test
     void deleteById() {
+        when(userRepo.deleteAllByIds(List.of(1L))).thenReturn(1);
+
+        service.deleteById(1L);
+
+        verify(userRepo, never()).findById(any());
+        verify(userCounter, times(1)).added(-1);
+        verify(auditLog, times(1)).recordIds(eq(Operation.DELETE), eq(List.of(1L)), eq(List.of()), anyLong());
+    }
+
+    @Test
+    void should_not_count_missing_user_when_delete() {
+        when(userRepo.deleteAllByIds(List.of(1L))).thenReturn(0);
+
         service.deleteById(1L);
-        verify(userRepo, times(1)).deleteById(1L);
+
+        verify(userCounter, never()).added(anyLong());
+        verify(auditLog, never()).recordIds(any(), any(), any(), anyLong());
+    }
+
+    @Test
+    void should_delete_all_by_ids_in_chunks() {
+        inTransaction();
+        when(bulkProps.chunkSize()).thenReturn(2);
+        when(userRepo.findExistingIds(List.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+        when(userRepo.findExistingIds(List.of(3L))).thenReturn(List.of());
+        when(userRepo.deleteAllByIds(List.of(1L, 2L))).thenReturn(2);
+
+        assertEquals(2, service.deleteAllById(List.of(1L, 2L, 2L, 3L)));
+
+        verify(userRepo, times(1)).deleteAllByIds(any());
+        verify(userCounter, times(1)).added(-2);
+        verify(auditLog, times(1)).recordIds(eq(Operation.DELETE), eq(List.of(1L, 2L)), eq(List.of()), anyLong());
+    }
+
+    @Test
+    void should_delete_all_by_birth_date_range_until_no_rows_left() {
+        inTransaction();
+        var from = LocalDate.of(1980, 1, 1);
+        var to = LocalDate.of(1990, 1, 1);
+        when(bulkProps.chunkSize()).thenReturn(2);
+        when(userRepo.findIdsByBirthDateBetween(from, to, Limit.of(2)))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of(3L))
+                .thenReturn(List.of());
+        when(userRepo.deleteAllByIds(List.of(1L, 2L))).thenReturn(2);
+        when(userRepo.deleteAllByIds(List.of(3L))).thenReturn(1);
+
+        assertEquals(3, service.deleteAllByBirthDateBetween(from, to));
+
+        verify(userRepo, times(3)).findIdsByBirthDateBetween(from, to, Limit.of(2));
+        assertThrows(IllegalArgumentException.class, () -> service.deleteAllByBirthDateBetween(to, from));
+    }
+
+    @Test
+    void should_partial_update_all_with_one_statement_per_chunk() {
+        inTransaction();
+        var query = mock(jakarta.persistence.Query.class);
+        when(bulkProps.chunkSize()).thenReturn(500);
+        when(userRepo.findExistingIds(List.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+        when(entityManager.createQuery(
+                "update User u set u.version = u.version + 1, u.firstName = :firstName where u.id in :ids"))
+                .thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        when(query.executeUpdate()).thenReturn(2);
+
+        var updated = service.partialUpdateAll(List.of(1L, 2L),
+                new UserDTO(null, null, "Jane", null, null, null, null));
+
+        assertEquals(2, updated);
+        verify(query, times(1)).setParameter("firstName", "Jane");
+        verify(auditLog, times(1)).recordIds(eq(Operation.PARTIAL_UPDATE), eq(List.of(1L, 2L)),
+                eq(List.of("firstName")), anyLong());
+    }
+
+    @Test
+    void should_reject_bulk_patch_of_email_or_without_changes() {
+        assertThrows(IllegalArgumentException.class, () -> service.partialUpdateAll(List.of(1L),
+                new UserDTO(null, "new@example.com", null, null, null, null, null)));
+        assertThrows(IllegalArgumentException.class, () -> service.partialUpdateAll(List.of(1L),
+                new UserDTO(null, null, null, null, null, null, null)));
+
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void inTransaction() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                return invocation.<TransactionCallback<Object>>getArgument(0).doInTransaction(null);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        });
+        when(cacheManager.getCache(USERS_CACHE)).thenReturn(new NoOpCache(USERS_CACHE));
+    }
+
+    @Test
+    void should_count_through_counter() {
+        var from = LocalDate.of(1990, 1, 1);
+        var to = from.plusYears(1);
+        when(userCounter.countAll()).thenReturn(new TotalCount(5, TotalCount.Strategy.COUNTER));
+        when(userCounter.countByBirthDateBetween(from, to)).thenReturn(new TotalCount(2, TotalCount.Strategy.CACHED));
+
+        assertEquals(new TotalCount(5, TotalCount.Strategy.COUNTER), service.countAll());
+        assertEquals(new TotalCount(2, TotalCount.Strategy.CACHED), service.countAllByBirthDateBetween(from, to));
+        assertThrows(IllegalArgumentException.class, () -> service.countAllByBirthDateBetween(to, from));
+    }
+
+    private static UserView view(Long id) {
+        return new UserView(id, null, null, null, null, null, null, null, null, null, null, null, 0L);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,90 @@
+package clear.solution.practisetest.service.impl;
+
+import clear.solution.practisetest.repository.UserRepository;
+import clear.solution.practisetest.repository.UserView;
+import clear.solution.practisetest.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = "user.cache.enabled=false")
+class UserServiceSingleFlightTest {
+
+    private static final int CALLERS = 32;
+    private static final long DATABASE_LATENCY_MS = 200;
+    private static final LocalDate FROM = LocalDate.of(1980, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2000, 1, 1);
+
+    @Autowired
+    private UserService userService;
+
+    @MockBean
+    private UserRepository userRepo;
+
+
+    @Test
+    void should_load_user_once_for_concurrent_callers() throws Exception {
+        var view = new UserView(1L, "test@example.com", "name", "surname", LocalDate.of(1990, 1, 1),
+                null, null, null, null, null, null, null, 0L);
+        when(userRepo.findViewById(1L)).thenAnswer(invocation -> slowly(Optional.of(view)));
+
+        var results = concurrently(() -> userService.getById(1L));
+
+        verify(userRepo, atMost(CALLERS / 8)).findViewById(1L);
+        results.forEach(user -> assertEquals(1L, user.id()));
+    }
+
+    @Test
+    void should_load_identical_page_once_for_concurrent_callers() throws Exception {
+        var pageable = PageRequest.of(0, 20);
+        when(userRepo.findAllViewsByBirthDateBetween(eq(FROM), eq(TO), any()))
+                .thenAnswer(invocation -> slowly(new SliceImpl<UserView>(List.of(), pageable, false)));
+
+        var results = concurrently(() -> userService.getAllByBirthDateBetween(FROM, TO, pageable));
+
+        verify(userRepo, atMost(CALLERS / 8)).findAllViewsByBirthDateBetween(eq(FROM), eq(TO), any());
+        assertEquals(CALLERS, results.size());
+    }
+
+    private static <T> T slowly(T result) throws InterruptedException {
+        Thread.sleep(DATABASE_LATENCY_MS);
+        return result;
+    }
+
+    private static <T> List<T> concurrently(Callable<T> call) throws Exception {
+        var start = new CountDownLatch(1);
+        try (var executor = Executors.newFixedThreadPool(CALLERS)) {
+            var futures = new ArrayList<Future<T>>();
+            for (int i = 0; i < CALLERS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return call.call();
+                }));
+            }
+            start.countDown();
+
+            var results = new ArrayList<T>();
+            for (var future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        }
+    }
+}
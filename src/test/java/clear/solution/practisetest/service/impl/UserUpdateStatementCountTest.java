@@ -0,0 +1,74 @@
+package clear.solution.practisetest.service.impl;
+
+import clear.solution.practisetest.dto.UserDTO;
+import clear.solution.practisetest.exception.ResourceInConflictException;
+import clear.solution.practisetest.service.UserService;
+import clear.solution.practisetest.support.SqlCaptor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {SqlCaptor.PROPERTY, "spring.datasource.url=jdbc:h2:mem:update-statements"})
+class UserUpdateStatementCountTest {
+
+    @Autowired
+    private UserService userService;
+
+    private UserDTO user;
+    private UserDTO other;
+
+
+    @BeforeEach
+    void setUp() {
+        var suffix = System.nanoTime();
+        user = userService.create(new UserDTO(null, "update%d@example.com".formatted(suffix), "John", "Doe",
+                LocalDate.of(1990, 5, 15), null, "123456789012"));
+        other = userService.create(new UserDTO(null, "other%d@example.com".formatted(suffix), "Jane", "Doe",
+                LocalDate.of(1990, 5, 15), null, null));
+        SqlCaptor.clear();
+    }
+
+    @Test
+    void should_skip_update_when_nothing_changed() {
+        var actual = userService.fullUpdate(user.id(), new UserDTO(null, user.email(), user.firstName(),
+                user.lastName(), user.birthDate(), null, user.phoneNumber()));
+
+        assertEquals(List.of("select"), kinds());
+        assertEquals(user.version(), actual.version());
+    }
+
+    @Test
+    void should_update_only_changed_columns_without_email_check() {
+        var actual = userService.partialUpdate(user.id(),
+                new UserDTO(null, user.email(), "Johnny", null, null, null, null));
+
+        assertEquals(List.of("select", "update"), kinds());
+        var update = SqlCaptor.statements().get(1);
+        assertTrue(update.contains("first_name"), update);
+        assertFalse(update.contains("email"), update);
+        assertFalse(update.contains("last_name"), update);
+        assertEquals(user.version() + 1, actual.version());
+    }
+
+    @Test
+    void should_reject_taken_email_from_unique_constraint() {
+        var patch = new UserDTO(null, other.email(), null, null, null, null, null);
+
+        assertThrows(ResourceInConflictException.class, () -> userService.partialUpdate(user.id(), patch));
+
+        assertEquals(List.of("select", "update"), kinds());
+        assertEquals(user.email(), userService.getById(user.id()).email());
+    }
+
+    private static List<String> kinds() {
+        return SqlCaptor.statements().stream()
+                .map(sql -> sql.strip().split("\\s+", 2)[0].toLowerCase())
+                .toList();
+    }
+}
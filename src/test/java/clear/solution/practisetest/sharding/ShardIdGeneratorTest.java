@@ -0,0 +1,55 @@
+package clear.solution.practisetest.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardIdGeneratorTest {
+
+    @Test
+    void should_encode_shard_in_every_id() {
+        var generator = new ShardIdGenerator(7, 3);
+        var seen = new HashSet<Long>();
+        for (int i = 0; i < 30_000; i++) {
+            var shard = i % 3;
+            var id = generator.next(shard);
+            assertTrue(id > 0);
+            assertEquals(shard, ShardIdGenerator.shardOf(id, 3));
+            assertTrue(seen.add(id));
+        }
+    }
+
+    @Test
+    void should_keep_ids_increasing_per_shard() {
+        var generator = new ShardIdGenerator(1, 64);
+        var last = 0L;
+        for (int i = 0; i < 10_000; i++) {
+            var id = generator.next(63);
+            assertTrue(id > last);
+            assertEquals(63, ShardIdGenerator.shardOf(id, 64));
+            last = id;
+        }
+    }
+
+    @Test
+    void should_use_plain_snowflake_ids_for_a_single_shard() {
+        var id = new ShardIdGenerator(513, 1).next(0);
+
+        assertEquals(513, (id >>> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_NODE);
+        assertEquals(0, ShardIdGenerator.shardOf(id, 1));
+    }
+
+    @Test
+    void should_map_foreign_ids_to_an_existing_shard() {
+        assertEquals(0, ShardIdGenerator.shardOf(Long.MAX_VALUE, 3));
+        assertEquals(2, ShardIdGenerator.shardOf(2, 3));
+    }
+
+    @Test
+    void should_reject_shard_count_out_of_range() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardIdGenerator(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ShardIdGenerator(0, ShardIdGenerator.MAX_SHARDS + 1));
+    }
+}
@@ -0,0 +1,39 @@
+package clear.solution.practisetest.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ShardRoutingDataSourceTest {
+
+    private final DataSource first = mock(DataSource.class);
+    private final DataSource second = mock(DataSource.class);
+    private final ShardRoutingDataSource dataSource = new ShardRoutingDataSource(List.of(first, second));
+
+
+    @Test
+    void should_route_to_selected_shard() throws SQLException {
+        var connection = mock(Connection.class);
+        when(second.getConnection()).thenReturn(connection);
+
+        assertSame(connection, ShardContext.on(1, () -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+    }
+
+    @Test
+    void should_refuse_connection_without_shard() {
+        assertThrows(IllegalStateException.class, dataSource::getConnection);
+    }
+}
@@ -0,0 +1,57 @@
+package clear.solution.practisetest.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeIdGeneratorTest {
+
+    @Test
+    void should_generate_unique_increasing_ids() {
+        var generator = new SnowflakeIdGenerator(7);
+        var seen = new HashSet<Long>();
+        var last = 0L;
+        for (int i = 0; i < 100_000; i++) {
+            var id = generator.next();
+            assertTrue(id > last);
+            assertTrue(seen.add(id));
+            last = id;
+        }
+    }
+
+    @Test
+    void should_encode_node_id() {
+        var id = new SnowflakeIdGenerator(513).next();
+        assertEquals(513, (id >>> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_NODE);
+    }
+
+    @Test
+    void should_not_go_backwards_when_clock_does() {
+        var clock = new AtomicLong(SnowflakeIdGenerator.EPOCH + 10_000);
+        var generator = new SnowflakeIdGenerator(1, clock::get);
+        var first = generator.next();
+        clock.addAndGet(-5_000);
+
+        assertTrue(generator.next() > first);
+    }
+
+    @Test
+    void should_borrow_next_millisecond_when_sequence_overflows() {
+        var generator = new SnowflakeIdGenerator(1, () -> SnowflakeIdGenerator.EPOCH);
+        var last = 0L;
+        for (int i = 0; i < 10_000; i++) {
+            var id = generator.next();
+            assertTrue(id > last);
+            last = id;
+        }
+    }
+
+    @Test
+    void should_reject_node_out_of_range() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(1024));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+    }
+}
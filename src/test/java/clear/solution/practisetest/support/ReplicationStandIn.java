@@ -0,0 +1,33 @@
+package clear.solution.practisetest.support;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+
+public class ReplicationStandIn {
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+
+
+    public ReplicationStandIn(DataSource primary, DataSource replica) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        Flyway.configure().dataSource(replica).load().migrate();
+    }
+
+    public void sync() {
+        var rows = primary.queryForList("select * from users");
+        replica.update("delete from users");
+        for (var row : rows) {
+            var columns = new ArrayList<>(row.keySet());
+            var sql = "insert into users (%s) values (%s)".formatted(
+                    String.join(", ", columns),
+                    String.join(", ", Collections.nCopies(columns.size(), "?")));
+            replica.update(sql, columns.stream().map(row::get).toArray());
+        }
+    }
+}
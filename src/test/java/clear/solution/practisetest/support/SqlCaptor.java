@@ -0,0 +1,75 @@
+package clear.solution.practisetest.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+public class SqlCaptor implements StatementInspector {
+
+    public static final String PROPERTY =
+            "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                    + "clear.solution.practisetest.support.SqlCaptor";
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(STATEMENTS);
+    }
+
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+
+    public static Counts counts() {
+        return Counts.of(statements());
+    }
+
+    public static void assertAtMost(int selects, int inserts, int updates, int deletes) {
+        var statements = statements();
+        var actual = Counts.of(statements);
+        if (actual.selects() > selects || actual.inserts() > inserts
+                || actual.updates() > updates || actual.deletes() > deletes) {
+            fail("Expected at most %s but was %s:%n%s".formatted(
+                    new Counts(selects, inserts, updates, deletes), actual, dump(statements)));
+        }
+    }
+
+    public static String dump(List<String> statements) {
+        return IntStream.range(0, statements.size())
+                .mapToObj(i -> "%3d: %s".formatted(i + 1, statements.get(i)))
+                .collect(Collectors.joining(System.lineSeparator()));
+    }
+
+    public record Counts(int selects, int inserts, int updates, int deletes) {
+
+        static Counts of(List<String> statements) {
+            int selects = 0, inserts = 0, updates = 0, deletes = 0;
+            for (var sql : statements) {
+                var stripped = sql.stripLeading().toLowerCase(Locale.ROOT);
+                if (stripped.startsWith("select") || stripped.startsWith("with")) selects++;
+                else if (stripped.startsWith("insert") || stripped.startsWith("merge")) inserts++;
+                else if (stripped.startsWith("update")) updates++;
+                else if (stripped.startsWith("delete")) deletes++;
+            }
+            return new Counts(selects, inserts, updates, deletes);
+        }
+
+        @Override
+        public String toString() {
+            return "%d select, %d insert, %d update, %d delete".formatted(selects, inserts, updates, deletes);
+        }
+    }
+}